@@ -0,0 +1,65 @@
+package com.game2048;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Packed 4x4 engine baseline for the same operations as GameBoardBenchmark at size 4
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BitBoardBenchmark {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    @Param({"0.25", "0.5", "0.75", "1.0"})
+    public double fill;
+
+    private long board;
+    private SplittableRandom random;
+    private int moveIndex;
+
+    @Setup
+    public void setUp() {
+        board = BitBoard.fromGameBoard(GameBoardBenchmark.createBoard(BitBoard.SIZE, fill, 2048));
+        random = new SplittableRandom(2048);
+    }
+
+    @Benchmark
+    public long move() {
+        return BitBoard.move(board, DIRECTIONS[moveIndex++ & 3], random);
+    }
+
+    @Benchmark
+    public long slide() {
+        return BitBoard.slide(board, DIRECTIONS[moveIndex++ & 3]);
+    }
+
+    @Benchmark
+    public long spawnRandomTile() {
+        return BitBoard.spawnRandomTile(board, random);
+    }
+
+    @Benchmark
+    public boolean isTerminal() {
+        return BitBoard.isTerminal(board);
+    }
+
+    @Benchmark
+    public boolean hasWon() {
+        return BitBoard.hasWon(board);
+    }
+}
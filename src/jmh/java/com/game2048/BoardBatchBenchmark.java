@@ -0,0 +1,77 @@
+package com.game2048;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// One lockstep step of a whole batch, scalar against Vector API kernel; time per call, divide by boards.
+// slide only slides; move also spawns and restarts finished games, as a simulation job would.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class BoardBatchBenchmark {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    @Param({"scalar", "vector"})
+    public String kernel;
+
+    @Param({"1024", "100000"})
+    public int boards;
+
+    private BoardBatch batch;
+    private Direction[][] moves;
+    private int[] scoreDeltas;
+    private boolean[] changed;
+    private SplittableRandom random;
+    private int step;
+
+    @Setup
+    public void setUp() {
+        SlideKernel slideKernel = kernel.equals("vector") ? new VectorSlideKernel() : ScalarSlideKernel.INSTANCE;
+        batch = new BoardBatch(4, boards, slideKernel);
+        random = new SplittableRandom(2048);
+        for (int i = 0; i < boards; i++) {
+            batch.set(i, GameBoardBenchmark.createBoard(4, 0.5, random.nextLong()));
+        }
+        // A few precomputed rounds of random directions, replayed in turn
+        moves = new Direction[8][boards];
+        for (Direction[] round : moves) {
+            for (int i = 0; i < boards; i++) {
+                round[i] = DIRECTIONS[random.nextInt(4)];
+            }
+        }
+        scoreDeltas = new int[boards];
+        changed = new boolean[boards];
+    }
+
+    @Benchmark
+    public int slide() {
+        batch.slide(moves[step++ & 7], scoreDeltas, changed);
+        return scoreDeltas[0];
+    }
+
+    @Benchmark
+    public int move() {
+        batch.move(moves[step++ & 7], scoreDeltas, changed, random);
+        for (int i = 0; i < boards; i++) {
+            if (!changed[i] && batch.isGameOver(i)) {
+                batch.set(i, GameBoard.createInitialBoard(4, random));
+            }
+        }
+        return scoreDeltas[0];
+    }
+}
@@ -0,0 +1,105 @@
+package com.game2048;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Hot paths of the immutable engine across board sizes and fill levels.
+// Run through main() to get gc.alloc.rate.norm (bytes allocated per operation) next to the timings.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBoardBenchmark {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    @Param({"4", "5", "6", "8", "16"})
+    public int size;
+
+    // Fraction of cells holding a tile
+    @Param({"0.25", "0.5", "0.75", "1.0"})
+    public double fill;
+
+    private static final int ALL_DIRECTIONS = (1 << DIRECTIONS.length) - 1;
+
+    private GameBoard board;
+    private int[] values;
+    private int moveIndex;
+
+    @Setup
+    public void setUp() {
+        board = createBoard(size, fill, 2048);
+        values = new int[size * size];
+        board.copyValues(values);
+    }
+
+    // Random board with the given fraction of cells filled with tiles from 2 to 1024, redrawn until
+    // every direction changes it, so no move measured here is a no-op (a full board can be terminal)
+    static GameBoard createBoard(int size, double fill, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int tiles = (int) Math.round(fill * size * size);
+        while (true) {
+            int[] values = new int[size * size];
+            for (int placed = 0; placed < tiles; ) {
+                int cell = random.nextInt(values.length);
+                if (values[cell] == 0) {
+                    values[cell] = 1 << (1 + random.nextInt(10));
+                    placed++;
+                }
+            }
+            GameBoard board = GameBoard.fromValues(size, values, 0, random);
+            if (board.legalMoves() == ALL_DIRECTIONS) {
+                return board;
+            }
+        }
+    }
+
+    @Benchmark
+    public GameBoard move() {
+        return board.move(DIRECTIONS[moveIndex++ & 3]);
+    }
+
+    @Benchmark
+    public GameBoard addRandomTile() {
+        return board.addRandomTile();
+    }
+
+    // isTerminalState and hasWon only read stats that move keeps up to date, so time what derives
+    // them instead: the full scan of a board rebuilt from its values, one array copy included
+    @Benchmark
+    public boolean deriveTerminalState() {
+        return GameBoard.fromValues(size, values, 0, 0L).isTerminalState();
+    }
+
+    // legalMoves is computed once per board and then cached, so a fresh board pays for the scan
+    @Benchmark
+    public int deriveLegalMoves() {
+        return GameBoard.fromValues(size, values, 0, 0L).legalMoves();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "com.game2048.*Benchmark")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,57 @@
+package com.game2048;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// In-place engine on the same boards as GameBoardBenchmark; every operation is undone to keep the board fixed
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MutableBoardBenchmark {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    @Param({"4", "5", "6", "8", "16"})
+    public int size;
+
+    @Param({"0.25", "0.5", "0.75", "1.0"})
+    public double fill;
+
+    private MutableBoard board;
+    private SplittableRandom random;
+    private int moveIndex;
+
+    @Setup
+    public void setUp() {
+        board = MutableBoard.fromGameBoard(GameBoardBenchmark.createBoard(size, fill, 2048), 1);
+        random = new SplittableRandom(2048);
+    }
+
+    @Benchmark
+    public boolean moveSpawnUndo() {
+        if (board.move(DIRECTIONS[moveIndex++ & 3])) {
+            board.spawn(random);
+            return board.undo();
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean isTerminalState() {
+        return board.isTerminalState();
+    }
+}
@@ -0,0 +1,8 @@
+package com.game2048;
+
+import java.util.Optional;
+
+// Strategy that picks the next move for a board; empty when no move changes the board
+public interface AiPlayer {
+    Optional<Direction> chooseMove(GameBoard board);
+}
@@ -0,0 +1,280 @@
+package com.game2048;
+
+import java.util.random.RandomGenerator;
+
+// Packed 4x4 board engine: every cell is a 4-bit exponent (0 = empty, n = 2^n)
+// stored in a single long, row-major, with cell (row, col) at nibble row * 4 + col.
+// Moves are table lookups over 16-bit rows and never allocate.
+public final class BitBoard {
+    public static final int SIZE = 4;
+    public static final int WIN_EXPONENT = 11; // 2048
+
+    private static final int MAX_EXPONENT = 15;
+    private static final long ROW_MASK = 0xFFFFL;
+
+    // Row results for every possible 16-bit row
+    private static final char[] ROW_LEFT = new char[1 << 16];
+    private static final char[] ROW_RIGHT = new char[1 << 16];
+    private static final int[] ROW_SCORE = new int[1 << 16];
+
+    static {
+        int[] line = new int[SIZE];
+        for (int row = 0; row < (1 << 16); row++) {
+            for (int i = 0; i < SIZE; i++) {
+                line[i] = (row >>> (4 * i)) & 0xF;
+            }
+            ROW_SCORE[row] = slideLineLeft(line);
+
+            int result = 0;
+            for (int i = 0; i < SIZE; i++) {
+                result |= line[i] << (4 * i);
+            }
+            ROW_LEFT[row] = (char) result;
+            ROW_RIGHT[reverseRow(row)] = (char) reverseRow(result);
+        }
+    }
+
+    private BitBoard() {
+    }
+
+    // Slides and merges a line of exponents towards index 0 in place, returning the merge score.
+    // Two 32768 tiles are never merged because the result would not fit in a nibble.
+    static int slideLineLeft(int[] line) {
+        int score = 0;
+        int target = 0;
+        int pending = 0;
+        for (int i = 0; i < line.length; i++) {
+            int value = line[i];
+            if (value == 0) {
+                continue;
+            }
+            if (pending == value && value < MAX_EXPONENT) {
+                line[target++] = value + 1;
+                score += 1 << (value + 1);
+                pending = 0;
+            } else {
+                if (pending != 0) {
+                    line[target++] = pending;
+                }
+                pending = value;
+            }
+        }
+        if (pending != 0) {
+            line[target++] = pending;
+        }
+        while (target < line.length) {
+            line[target++] = 0;
+        }
+        return score;
+    }
+
+    private static int reverseRow(int row) {
+        return ((row >>> 12) & 0x000F) | ((row >>> 4) & 0x00F0)
+                | ((row << 4) & 0x0F00) | ((row << 12) & 0xF000);
+    }
+
+    // Swaps cell (r, c) with cell (c, r)
+    public static long transpose(long board) {
+        long a1 = board & 0xF0F00F0FF0F00F0FL;
+        long a2 = board & 0x0000F0F00000F0F0L;
+        long a3 = board & 0x0F0F00000F0F0000L;
+        long a = a1 | (a2 << 12) | (a3 >>> 12);
+        long b1 = a & 0xFF00FF0000FF00FFL;
+        long b2 = a & 0x00FF00FF00000000L;
+        long b3 = a & 0x00000000FF00FF00L;
+        return b1 | (b2 >>> 24) | (b3 << 24);
+    }
+
+    // Swaps column c with column 3 - c
+    public static long mirror(long board) {
+        return ((board >>> 12) & 0x000F000F000F000FL) | ((board >>> 4) & 0x00F000F000F000F0L)
+                | ((board << 4) & 0x0F000F000F000F00L) | ((board << 12) & 0xF000F000F000F000L);
+    }
+
+    // Swaps row r with row 3 - r
+    public static long flip(long board) {
+        return (board >>> 48) | ((board >>> 16) & 0x00000000FFFF0000L)
+                | ((board << 16) & 0x0000FFFF00000000L) | (board << 48);
+    }
+
+    // Smallest of the board's 8 rotations and reflections as an unsigned number; boards that
+    // are rotations or reflections of each other share it, as do their expectimax values
+    public static long canonical(long board) {
+        long flipped = flip(board);
+        long transposed = transpose(board);
+        long transposedFlipped = flip(transposed);
+        long min = minUnsigned(board, mirror(board));
+        min = minUnsigned(min, minUnsigned(flipped, mirror(flipped)));
+        min = minUnsigned(min, minUnsigned(transposed, mirror(transposed)));
+        return minUnsigned(min, minUnsigned(transposedFlipped, mirror(transposedFlipped)));
+    }
+
+    // 64-bit hash that is equal for all 8 symmetric variants of a board
+    public static long canonicalHash(long board) {
+        return TranspositionTable.mix64(canonical(board));
+    }
+
+    private static long minUnsigned(long a, long b) {
+        return Long.compareUnsigned(a, b) <= 0 ? a : b;
+    }
+
+    private static long slideRows(long board, char[] table) {
+        return (long) table[(int) (board & ROW_MASK)]
+                | (long) table[(int) ((board >>> 16) & ROW_MASK)] << 16
+                | (long) table[(int) ((board >>> 32) & ROW_MASK)] << 32
+                | (long) table[(int) ((board >>> 48) & ROW_MASK)] << 48;
+    }
+
+    private static int scoreRows(long board) {
+        return ROW_SCORE[(int) (board & ROW_MASK)]
+                + ROW_SCORE[(int) ((board >>> 16) & ROW_MASK)]
+                + ROW_SCORE[(int) ((board >>> 32) & ROW_MASK)]
+                + ROW_SCORE[(int) ((board >>> 48) & ROW_MASK)];
+    }
+
+    // Applies the slide and merge of a move without spawning a new tile
+    public static long slide(long board, Direction direction) {
+        switch (direction) {
+            case LEFT: return slideRows(board, ROW_LEFT);
+            case RIGHT: return slideRows(board, ROW_RIGHT);
+            case UP: return transpose(slideRows(transpose(board), ROW_LEFT));
+            case DOWN: return transpose(slideRows(transpose(board), ROW_RIGHT));
+            default: throw new IllegalArgumentException("Invalid direction");
+        }
+    }
+
+    // Points earned by a move; merges within a line score the same in both directions
+    public static int mergeScore(long board, Direction direction) {
+        switch (direction) {
+            case LEFT:
+            case RIGHT:
+                return scoreRows(board);
+            case UP:
+            case DOWN:
+                return scoreRows(transpose(board));
+            default: throw new IllegalArgumentException("Invalid direction");
+        }
+    }
+
+    // Same semantics as GameBoard.move: slide, then spawn a tile only if something moved
+    public static long move(long board, Direction direction, RandomGenerator random) {
+        long moved = slide(board, direction);
+        return moved == board ? board : spawnRandomTile(moved, random);
+    }
+
+    public static long spawnRandomTile(long board, RandomGenerator random) {
+        int empty = countEmpty(board);
+        if (empty == 0) {
+            return board;
+        }
+        int target = random.nextInt(empty);
+        long exponent = random.nextDouble() < 0.9 ? 1 : 2;
+        for (int shift = 0; shift < 64; shift += 4) {
+            if (((board >>> shift) & 0xF) == 0 && target-- == 0) {
+                return board | (exponent << shift);
+            }
+        }
+        throw new IllegalStateException("Empty cell count out of sync");
+    }
+
+    // Bit i * 4 is set for each empty cell i
+    static long emptyMask(long board) {
+        long x = board | (board >>> 1);
+        x |= x >>> 2;
+        return ~x & 0x1111111111111111L;
+    }
+
+    public static int countEmpty(long board) {
+        return Long.bitCount(emptyMask(board));
+    }
+
+    public static int maxExponent(long board) {
+        int max = 0;
+        for (int shift = 0; shift < 64; shift += 4) {
+            max = Math.max(max, (int) ((board >>> shift) & 0xF));
+        }
+        return max;
+    }
+
+    public static boolean hasWon(long board) {
+        return maxExponent(board) >= WIN_EXPONENT;
+    }
+
+    public static boolean isTerminal(long board) {
+        if (emptyMask(board) != 0) {
+            return false;
+        }
+        // A full board can only move by merging horizontal or vertical neighbours
+        long transposed = transpose(board);
+        return slideRows(board, ROW_LEFT) == board && slideRows(transposed, ROW_LEFT) == transposed;
+    }
+
+    public static int getExponent(long board, int row, int col) {
+        return (int) ((board >>> (4 * (row * SIZE + col))) & 0xF);
+    }
+
+    public static int getValue(long board, int row, int col) {
+        int exponent = getExponent(board, row, col);
+        return exponent == 0 ? 0 : 1 << exponent;
+    }
+
+    public static long fromGameBoard(GameBoard board) {
+        if (board.getSize() != SIZE) {
+            throw new IllegalArgumentException("BitBoard only supports " + SIZE + "x" + SIZE + " boards");
+        }
+        long packed = 0;
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                int value = board.getValue(row, col);
+                packed |= (long) toExponent(value) << (4 * (row * SIZE + col));
+            }
+        }
+        return packed;
+    }
+
+    // The result's spawn state comes from the calling thread's ThreadLocalRandom
+    public static GameBoard toGameBoard(long board, int score) {
+        return GameBoard.fromValues(SIZE, toValues(board), score);
+    }
+
+    // The result's spawn state is one draw from random
+    public static GameBoard toGameBoard(long board, int score, RandomGenerator random) {
+        return GameBoard.fromValues(SIZE, toValues(board), score, random);
+    }
+
+    private static int[] toValues(long board) {
+        int[] values = new int[SIZE * SIZE];
+        for (int i = 0; i < values.length; i++) {
+            int exponent = (int) ((board >>> (4 * i)) & 0xF);
+            values[i] = exponent == 0 ? 0 : 1 << exponent;
+        }
+        return values;
+    }
+
+    static int toExponent(int value) {
+        if (value == 0) {
+            return 0;
+        }
+        int exponent = Integer.numberOfTrailingZeros(value);
+        if (Integer.bitCount(value) != 1 || exponent > MAX_EXPONENT) {
+            throw new IllegalArgumentException("Tile value cannot be packed: " + value);
+        }
+        return exponent;
+    }
+
+    public static String toString(long board) {
+        StringBuilder builder = new StringBuilder();
+        for (int row = 0; row < SIZE; row++) {
+            if (row > 0) {
+                builder.append('\n');
+            }
+            for (int col = 0; col < SIZE; col++) {
+                if (col > 0) {
+                    builder.append(' ');
+                }
+                builder.append(getValue(board, row, col));
+            }
+        }
+        return builder.toString();
+    }
+}
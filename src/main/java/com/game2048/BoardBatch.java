@@ -0,0 +1,184 @@
+package com.game2048;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+// Many boards of one size held in flat arrays for lockstep simulation. Cells are stored
+// struct-of-arrays: the value of cell c of board b is at cells[c * capacity + b], so the same
+// cell of neighbouring boards is contiguous and one vector operation covers several boards.
+//
+// Slides run on the Vector API kernel (VectorSlideKernel) when the JVM is started with
+// --add-modules jdk.incubator.vector, and on a scalar kernel otherwise or with
+// -Dgame2048.vector=false. Both give the same result as GameBoard.slide, and move spawns with
+// the same draws as BitBoard.move. Not thread-safe.
+public final class BoardBatch {
+    static final SlideKernel KERNEL = loadKernel();
+
+    private final SlideKernel kernel;
+    private final int size;
+    private final int capacity;
+    private final int[] cells;
+    private final int[] scores;
+    // Direction ordinals of the move in progress, reused between calls
+    private final int[] directions;
+    // Spawn source of the boards handed out by get, shared like the batch itself
+    private final RandomGenerator random = new SplittableRandom();
+
+    public BoardBatch(int size, int capacity) {
+        this(size, capacity, KERNEL);
+    }
+
+    // A specific kernel, for comparing them
+    BoardBatch(int size, int capacity, SlideKernel kernel) {
+        if (size < 2 || size > GameGUI.MAX_SIZE) {
+            throw new IllegalArgumentException("Board size must be between 2 and " + GameGUI.MAX_SIZE + ": " + size);
+        }
+        if (capacity < 1 || (long) capacity * size * size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid batch capacity: " + capacity);
+        }
+        this.kernel = kernel;
+        this.size = size;
+        this.capacity = capacity;
+        this.cells = new int[capacity * size * size];
+        this.scores = new int[capacity];
+        this.directions = new int[capacity];
+    }
+
+    // Vector kernel if its module is present; it is loaded by name so this class never links against it
+    private static SlideKernel loadKernel() {
+        if (!Boolean.parseBoolean(System.getProperty("game2048.vector", "true"))) {
+            return ScalarSlideKernel.INSTANCE;
+        }
+        try {
+            return (SlideKernel) Class.forName("com.game2048.VectorSlideKernel").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return ScalarSlideKernel.INSTANCE;
+        }
+    }
+
+    // Whether the default kernel is the Vector API one
+    public static boolean isVectorized() {
+        return KERNEL != ScalarSlideKernel.INSTANCE;
+    }
+
+    // Cell a line starts from, on the edge the tiles move towards, and the step along it,
+    // for a direction ordinal
+    static int lineStart(int direction, int line, int size) {
+        switch (direction) {
+            case 0: return line * size;
+            case 1: return line * size + size - 1;
+            case 2: return line;
+            case 3: return (size - 1) * size + line;
+            default: throw new IllegalArgumentException("Invalid direction: " + direction);
+        }
+    }
+
+    static int lineStep(int direction, int size) {
+        switch (direction) {
+            case 0: return 1;
+            case 1: return -1;
+            case 2: return size;
+            case 3: return -size;
+            default: throw new IllegalArgumentException("Invalid direction: " + direction);
+        }
+    }
+
+    public void set(int index, GameBoard board) {
+        if (board.getSize() != size) {
+            throw new IllegalArgumentException("Expected a " + size + "x" + size + " board");
+        }
+        checkIndex(index);
+        for (int cell = 0; cell < size * size; cell++) {
+            cells[cell * capacity + index] = board.getValue(cell / size, cell % size);
+        }
+        scores[index] = board.getScore();
+    }
+
+    public GameBoard get(int index) {
+        checkIndex(index);
+        int[] values = new int[size * size];
+        for (int cell = 0; cell < values.length; cell++) {
+            values[cell] = cells[cell * capacity + index];
+        }
+        return GameBoard.fromValues(size, values, scores[index], random);
+    }
+
+    public int getValue(int index, int row, int col) {
+        return cells[(row * size + col) * capacity + index];
+    }
+
+    // Slides and merges board i towards directions[i], or leaves it when that is null, without
+    // spawning. Points gained go to scoreDeltas[i] (and the board's score), and changed[i] tells
+    // whether the board moved. The first directions.length boards take part.
+    public void slide(Direction[] directions, int[] scoreDeltas, boolean[] changed) {
+        int count = directions.length;
+        if (count > capacity || scoreDeltas.length < count || changed.length < count) {
+            throw new IllegalArgumentException("Expected at most " + capacity + " directions and room for each result");
+        }
+        for (int i = 0; i < count; i++) {
+            this.directions[i] = directions[i] == null ? -1 : directions[i].ordinal();
+        }
+        kernel.slide(cells, capacity, size, this.directions, 0, count, scoreDeltas, changed);
+        for (int i = 0; i < count; i++) {
+            scores[i] += scoreDeltas[i];
+        }
+    }
+
+    // Same as slide, then a random tile appears on every board that changed, as in GameBoard.move
+    public void move(Direction[] directions, int[] scoreDeltas, boolean[] changed, RandomGenerator random) {
+        slide(directions, scoreDeltas, changed);
+        for (int i = 0; i < directions.length; i++) {
+            if (changed[i]) {
+                spawnRandomTile(i, random);
+            }
+        }
+    }
+
+    // The n-th empty cell in row-major order gets a 2 (90%) or a 4, drawn as in BitBoard.spawnRandomTile
+    public void spawnRandomTile(int index, RandomGenerator random) {
+        checkIndex(index);
+        int empty = 0;
+        for (int cell = index; cell < cells.length; cell += capacity) {
+            if (cells[cell] == 0) {
+                empty++;
+            }
+        }
+        if (empty == 0) {
+            return;
+        }
+        int target = random.nextInt(empty);
+        int value = random.nextDouble() < 0.9 ? 2 : 4;
+        for (int cell = index; cell < cells.length; cell += capacity) {
+            if (cells[cell] == 0 && target-- == 0) {
+                cells[cell] = value;
+                return;
+            }
+        }
+    }
+
+    // True when no direction changes the board
+    public boolean isGameOver(int index) {
+        checkIndex(index);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int value = getValue(index, row, col);
+                if (value == 0
+                        || (col + 1 < size && value == getValue(index, row, col + 1))
+                        || (row + 1 < size && value == getValue(index, row + 1, col))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= capacity) {
+            throw new IndexOutOfBoundsException("Board " + index + " outside batch of " + capacity);
+        }
+    }
+
+    public int getScore(int index) { return scores[index]; }
+    public int getSize() { return size; }
+    public int getCapacity() { return capacity; }
+}
@@ -0,0 +1,14 @@
+package com.game2048;
+
+// Static evaluation of a position for search-based players; higher is better.
+// Evaluators used by the expectimax solvers must give the same value for every rotation and
+// reflection of a board, since their transposition tables are keyed by BitBoard.canonical,
+// and should stay positive, since a board with no legal move is worth 0.
+public interface BoardEvaluator {
+    double evaluate(GameBoard board);
+
+    // Packed 4x4 board (see BitBoard); the default unpacks it, table-driven evaluators override this
+    default double evaluate(long board) {
+        return evaluate(BitBoard.toGameBoard(board, 0));
+    }
+}
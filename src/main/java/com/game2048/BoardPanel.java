@@ -0,0 +1,239 @@
+package com.game2048;
+
+import javax.swing.*;
+import java.awt.*;
+
+// Custom-painted board. Colors and fonts are built once, and setBoard compares the
+// new board with the one on screen and repaints only the cells whose value changed.
+// animate plays a move diff instead: tiles slide, then merged tiles pop and the spawn grows,
+// driven by a Swing timer and painted through Swing's back buffer.
+// Tiles are sized to fit the component, so any board up to 16x16 fills the window.
+final class BoardPanel extends JComponent {
+    private static final long serialVersionUID = 1L;
+
+    private static final int FRAME_MILLIS = 15;
+    private static final long SLIDE_NANOS = 100_000_000L;
+    private static final long POP_NANOS = 100_000_000L;
+    private static final Color BACKGROUND = new Color(0xFAF8EF);
+    private static final Color GRID_COLOR = new Color(0xBBADA0);
+    private static final Color DARK_TEXT = new Color(0x776E65);
+    private static final Color LARGE_TILE = new Color(0x3C3A32);
+
+    // Indexed by exponent, 0 = empty cell
+    private static final Color[] TILE_COLORS = {
+        new Color(0xCDC1B4), new Color(0xEEE4DA), new Color(0xEDE0C8), new Color(0xF2B179),
+        new Color(0xF59563), new Color(0xF67C5F), new Color(0xF65E3B), new Color(0xEDCF72),
+        new Color(0xEDCC61), new Color(0xEDC850), new Color(0xEDC53F), new Color(0xEDC22E)
+    };
+
+    // Indexed by number of digits, for 100 pixel tiles
+    private static final Font[] FONTS = new Font[11];
+
+    static {
+        for (int digits = 1; digits < FONTS.length; digits++) {
+            int points = digits <= 2 ? 36 : digits == 3 ? 32 : Math.max(12, 24 - 3 * (digits - 4));
+            FONTS[digits] = new Font("Arial", Font.BOLD, points);
+        }
+    }
+
+    private final int size;
+    private final int[] values;
+
+    // Geometry for the current component size, recomputed on resize
+    private int tileSize;
+    private int gap;
+    private int border;
+    private int originX;
+    private int originY;
+    private final Font[] fonts = new Font[FONTS.length];
+    private final Timer timer;
+    // Move being animated, or null; values already hold its final board
+    private MoveDiff animation;
+    private long animationStart;
+
+    // preferredTileSize only sets the initial window size; tiles then follow the component size
+    BoardPanel(int size, int preferredTileSize) {
+        this.size = size;
+        this.values = new int[size * size];
+        this.timer = new Timer(FRAME_MILLIS, e -> nextFrame());
+        setOpaque(true);
+        setDoubleBuffered(true);
+        int extent = size * preferredTileSize + (size + 1) * gapFor(preferredTileSize);
+        setPreferredSize(new Dimension(extent, extent));
+        setSize(extent, extent);
+    }
+
+    // Every resize goes through here, so the geometry is current before the next paint
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        super.setBounds(x, y, width, height);
+        layoutCells();
+    }
+
+    private static int gapFor(int tileSize) {
+        return Math.max(2, tileSize / 10);
+    }
+
+    // Largest square grid that fits, centred, with gaps a tenth of a tile
+    private void layoutCells() {
+        int available = Math.max(0, Math.min(getWidth(), getHeight()));
+        int newTileSize = Math.max(1, available * 10 / (11 * size + 1));
+        gap = gapFor(newTileSize);
+        newTileSize = Math.max(1, (available - (size + 1) * gap) / size);
+        int extent = size * newTileSize + (size + 1) * gap;
+        originX = (getWidth() - extent) / 2;
+        originY = (getHeight() - extent) / 2;
+        border = newTileSize >= 40 ? 2 : 1;
+        if (newTileSize != tileSize) {
+            tileSize = newTileSize;
+            for (int digits = 1; digits < fonts.length; digits++) {
+                fonts[digits] = FONTS[digits].deriveFont(Math.max(6f, FONTS[digits].getSize2D() * tileSize / 100f));
+            }
+        }
+    }
+
+    // Shows the board, scheduling a repaint of each cell that differs from the one on screen
+    void setBoard(GameBoard board) {
+        if (board.getSize() != size) {
+            throw new IllegalArgumentException("Expected a " + size + "x" + size + " board");
+        }
+        if (animation != null) {
+            stopAnimation();
+        }
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int value = board.getValue(row, col);
+                if (values[row * size + col] != value) {
+                    values[row * size + col] = value;
+                    repaint(cellX(col), cellY(row), tileSize, tileSize);
+                }
+            }
+        }
+    }
+
+    // Plays the move from the board on screen. A move that arrives mid-animation cuts the
+    // running one short, so fast key presses never wait for frames to finish.
+    void animate(MoveDiff diff) {
+        if (!diff.hasChanged()) {
+            return;
+        }
+        setBoard(diff.getBoard());
+        animation = diff;
+        animationStart = System.nanoTime();
+        timer.start();
+        repaint();
+    }
+
+    boolean isAnimating() {
+        return animation != null;
+    }
+
+    private void nextFrame() {
+        if (System.nanoTime() - animationStart >= SLIDE_NANOS + POP_NANOS) {
+            stopAnimation();
+        }
+        repaint();
+    }
+
+    private void stopAnimation() {
+        animation = null;
+        timer.stop();
+        repaint();
+    }
+
+    private int cellX(int col) {
+        return originX + gap + col * (tileSize + gap);
+    }
+
+    private int cellY(int row) {
+        return originY + gap + row * (tileSize + gap);
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        Graphics2D g = (Graphics2D) graphics;
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        int extent = size * tileSize + (size + 1) * gap;
+        g.setColor(BACKGROUND);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        g.setColor(GRID_COLOR);
+        g.fillRect(originX, originY, extent, extent);
+        if (animation != null) {
+            paintAnimation(g, System.nanoTime() - animationStart);
+            return;
+        }
+
+        // Only the cells that intersect the dirty region
+        int stride = tileSize + gap;
+        int firstCol = Math.max(0, Math.floorDiv(clip.x - originX - gap, stride));
+        int lastCol = Math.min(size - 1, Math.floorDiv(clip.x + clip.width - originX - gap, stride));
+        int firstRow = Math.max(0, Math.floorDiv(clip.y - originY - gap, stride));
+        int lastRow = Math.min(size - 1, Math.floorDiv(clip.y + clip.height - originY - gap, stride));
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                paintTile(g, values[row * size + col], cellX(col), cellY(row));
+            }
+        }
+    }
+
+    private void paintAnimation(Graphics2D g, long elapsed) {
+        for (int cell = 0; cell < values.length; cell++) {
+            paintTile(g, 0, cellX(cell % size), cellY(cell / size));
+        }
+        MoveDiff diff = animation;
+        if (elapsed < SLIDE_NANOS) {
+            // Every old tile slides from its source towards its destination
+            double progress = (double) elapsed / SLIDE_NANOS;
+            for (int tile = 0; tile < diff.getTileCount(); tile++) {
+                int from = diff.getSource(tile);
+                int to = diff.getDestination(tile);
+                int x = cellX(from % size) + (int) Math.round((cellX(to % size) - cellX(from % size)) * progress);
+                int y = cellY(from / size) + (int) Math.round((cellY(to / size) - cellY(from / size)) * progress);
+                paintTile(g, diff.getValue(tile), x, y);
+            }
+            return;
+        }
+        // Merged tiles swell and settle, the spawned tile grows in from nothing
+        double progress = Math.min(1.0, (double) (elapsed - SLIDE_NANOS) / POP_NANOS);
+        int spawn = diff.getSpawnCell();
+        for (int cell = 0; cell < values.length; cell++) {
+            if (values[cell] != 0 && cell != spawn) {
+                paintTile(g, values[cell], cellX(cell % size), cellY(cell / size));
+            }
+        }
+        for (int tile = 0; tile < diff.getTileCount(); tile++) {
+            int to = diff.getDestination(tile);
+            if (diff.isMerged(tile)) {
+                paintTile(g, values[to], cellX(to % size), cellY(to / size), 1 + 0.15 * Math.sin(Math.PI * progress));
+            }
+        }
+        if (spawn >= 0) {
+            paintTile(g, values[spawn], cellX(spawn % size), cellY(spawn / size), progress);
+        }
+    }
+
+    private void paintTile(Graphics2D g, int value, int x, int y) {
+        paintTile(g, value, x, y, 1.0);
+    }
+
+    // scale shrinks or grows the tile around its centre
+    private void paintTile(Graphics2D g, int value, int x, int y, double scale) {
+        int exponent = value == 0 ? 0 : Integer.numberOfTrailingZeros(value);
+        int inset = border + (int) Math.round((tileSize - 2 * border) * (1 - scale) / 2);
+        g.setColor(exponent < TILE_COLORS.length ? TILE_COLORS[exponent] : LARGE_TILE);
+        g.fillRect(x + inset, y + inset, tileSize - 2 * inset, tileSize - 2 * inset);
+        if (value == 0 || scale < 0.5) {
+            return;
+        }
+        String text = Integer.toString(value);
+        g.setFont(fonts[Math.min(text.length(), fonts.length - 1)]);
+        g.setColor(value < 16 ? DARK_TEXT : Color.WHITE);
+        FontMetrics metrics = g.getFontMetrics();
+        g.drawString(text, x + (tileSize - metrics.stringWidth(text)) / 2,
+                y + (tileSize - metrics.getHeight()) / 2 + metrics.getAscent());
+    }
+}
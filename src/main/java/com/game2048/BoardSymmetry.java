@@ -0,0 +1,80 @@
+package com.game2048;
+
+// The 8 rotations and reflections of a square board of any size. Symmetry s reads cell
+// (row, col) of the transformed board from a source cell: bit 2 mirrors rows, bit 1 mirrors
+// columns and bit 0 then transposes. The canonical form is the lexicographically smallest image.
+final class BoardSymmetry {
+    static final int COUNT = 8;
+    static final int IDENTITY = 0;
+
+    private BoardSymmetry() {
+    }
+
+    // Row-major index of the source cell that the symmetry places at (row, col)
+    static int sourceIndex(int symmetry, int row, int col, int size) {
+        if ((symmetry & 4) != 0) {
+            row = size - 1 - row;
+        }
+        if ((symmetry & 2) != 0) {
+            col = size - 1 - col;
+        }
+        return (symmetry & 1) != 0 ? col * size + row : row * size + col;
+    }
+
+    // Symmetry giving the smallest image of cells; the lowest such symmetry when several tie
+    static int canonicalSymmetry(int[] cells, int size) {
+        int best = IDENTITY;
+        for (int symmetry = 1; symmetry < COUNT; symmetry++) {
+            if (compare(cells, size, symmetry, best) < 0) {
+                best = symmetry;
+            }
+        }
+        return best;
+    }
+
+    private static int compare(int[] cells, int size, int first, int second) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int a = cells[sourceIndex(first, row, col, size)];
+                int b = cells[sourceIndex(second, row, col, size)];
+                if (a != b) {
+                    return Integer.compare(a, b);
+                }
+            }
+        }
+        return 0;
+    }
+
+    static void apply(int[] cells, int size, int symmetry, int[] target) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                target[row * size + col] = cells[sourceIndex(symmetry, row, col, size)];
+            }
+        }
+    }
+
+    // Writes the exponents (0 = empty) of the canonical image of cells, row-major
+    static void canonicalExponents(int[] cells, int size, byte[] exponents) {
+        int symmetry = canonicalSymmetry(cells, size);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int value = cells[sourceIndex(symmetry, row, col, size)];
+                exponents[row * size + col] = (byte) (value == 0 ? 0 : Integer.numberOfTrailingZeros(value));
+            }
+        }
+    }
+
+    // Mixes exponents eight at a time; never returns 0 so callers can use 0 as "no entry"
+    static long hash(byte[] exponents) {
+        long hash = 0;
+        long word = 0;
+        for (int cell = 0; cell < exponents.length; cell++) {
+            word = (word << 8) | exponents[cell];
+            if ((cell & 7) == 7 || cell == exponents.length - 1) {
+                hash = TranspositionTable.mix64(hash ^ word) + cell;
+                word = 0;
+            }
+        }
+        return hash == 0 ? 1 : hash;
+    }
+}
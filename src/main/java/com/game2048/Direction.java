@@ -1,5 +1,10 @@
 package com.game2048;
 
 public enum Direction {
-    LEFT, RIGHT, UP, DOWN
+    LEFT, RIGHT, UP, DOWN;
+
+    // Bit used for this direction in GameBoard.legalMoves()
+    public int mask() {
+        return 1 << ordinal();
+    }
 }
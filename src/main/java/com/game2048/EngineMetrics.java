@@ -0,0 +1,153 @@
+package com.game2048;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Opt-in instrumentation of GameBoard.move, the random spawn behind addRandomTile and
+// isTerminalState, switched on with -Dgame2048.metrics=true. ENABLED is a static final read
+// once at class load, so with metrics off the JIT drops every guarded block and the engine
+// runs exactly as uninstrumented code.
+//
+// When enabled, the counters and one LatencyHistogram per operation are registered as MBeans
+// (com.game2048:type=EngineMetrics and com.game2048:type=Latency,name=...), and a daemon
+// thread samples them every game2048.metrics.interval seconds (default 10). Each sample sums
+// the bytes allocated by every live thread since the previous one, and unless
+// game2048.metrics.log=false it prints one summary line.
+public final class EngineMetrics implements EngineMetricsMBean {
+    public static final boolean ENABLED = Boolean.getBoolean("game2048.metrics");
+
+    static final LatencyHistogram MOVE = new LatencyHistogram("move");
+    static final LatencyHistogram SPAWN = new LatencyHistogram("spawn");
+    static final LatencyHistogram TERMINAL = new LatencyHistogram("isTerminalState");
+
+    private static final EngineMetrics INSTANCE = new EngineMetrics();
+
+    static {
+        if (ENABLED) {
+            INSTANCE.start(Math.max(1, Long.getLong("game2048.metrics.interval", 10)),
+                    !"false".equals(System.getProperty("game2048.metrics.log")));
+        }
+    }
+
+    private ThreadMXBean threads;
+    // Allocated bytes per thread id at the previous sample
+    private final Map<Long, Long> allocated = new HashMap<>();
+    private long lastSampleNanos;
+    private long lastMoves;
+    private long lastSpawns;
+
+    // Rates over the last interval, written by the sampling thread
+    private volatile double movesPerSecond;
+    private volatile double spawnsPerSecond;
+    private volatile double allocatedBytesPerSecond;
+    private volatile double allocatedBytesPerMove;
+
+    private EngineMetrics() {
+    }
+
+    public static EngineMetrics get() {
+        return INSTANCE;
+    }
+
+    private void start(long intervalSeconds, boolean log) {
+        threads = ManagementFactory.getThreadMXBean();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(this, new ObjectName("com.game2048:type=EngineMetrics"));
+            for (LatencyHistogram histogram : new LatencyHistogram[] {MOVE, SPAWN, TERMINAL}) {
+                server.registerMBean(histogram, new ObjectName("com.game2048:type=Latency,name=" + histogram.getName()));
+            }
+        } catch (JMException e) {
+            System.out.println("Could not register engine metrics: " + e.getMessage());
+        }
+        lastSampleNanos = System.nanoTime();
+        allocatedSince();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "engine-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(() -> {
+            sample();
+            if (log) {
+                System.out.println(summary());
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    private synchronized void sample() {
+        long now = System.nanoTime();
+        double seconds = (now - lastSampleNanos) / 1e9;
+        long moves = MOVE.getCount();
+        long spawns = SPAWN.getCount();
+        long bytes = allocatedSince();
+        movesPerSecond = (moves - lastMoves) / seconds;
+        spawnsPerSecond = (spawns - lastSpawns) / seconds;
+        allocatedBytesPerSecond = bytes < 0 ? Double.NaN : bytes / seconds;
+        allocatedBytesPerMove = bytes < 0 || moves == lastMoves ? Double.NaN : (double) bytes / (moves - lastMoves);
+        lastSampleNanos = now;
+        lastMoves = moves;
+        lastSpawns = spawns;
+    }
+
+    // Bytes allocated by all live threads since the previous call, counting threads that started
+    // in between in full; -1 where the JVM cannot measure thread allocation
+    private long allocatedSince() {
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+        if (!allocation.isThreadAllocatedMemorySupported() || !allocation.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        long[] ids = threads.getAllThreadIds();
+        long[] bytes = allocation.getThreadAllocatedBytes(ids);
+        Map<Long, Long> previous = new HashMap<>(allocated);
+        allocated.clear();
+        long total = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (bytes[i] >= 0) {
+                allocated.put(ids[i], bytes[i]);
+                total += bytes[i] - previous.getOrDefault(ids[i], 0L);
+            }
+        }
+        return total;
+    }
+
+    String summary() {
+        return String.format("metrics: %.0f moves/s, %.0f spawns/s, %s, %s, %s, alloc %.1f MB/s (%.0f B/move)",
+                movesPerSecond, spawnsPerSecond, latency(MOVE), latency(SPAWN), latency(TERMINAL),
+                allocatedBytesPerSecond / 1e6, allocatedBytesPerMove);
+    }
+
+    private static String latency(LatencyHistogram histogram) {
+        return String.format("%s p50 %d p99 %d p99.9 %d max %d ns", histogram.getName(), histogram.getP50Nanos(),
+                histogram.getP99Nanos(), histogram.getP999Nanos(), histogram.getMaxNanos());
+    }
+
+    @Override public long getMoveCount() { return MOVE.getCount(); }
+    @Override public long getSpawnCount() { return SPAWN.getCount(); }
+    @Override public long getTerminalCheckCount() { return TERMINAL.getCount(); }
+    @Override public double getMovesPerSecond() { return movesPerSecond; }
+    @Override public double getSpawnsPerSecond() { return spawnsPerSecond; }
+    @Override public double getAllocatedBytesPerSecond() { return allocatedBytesPerSecond; }
+    @Override public double getAllocatedBytesPerMove() { return allocatedBytesPerMove; }
+
+    // Clears the counters and every histogram; rates restart from the next sample
+    @Override
+    public synchronized void reset() {
+        MOVE.reset();
+        SPAWN.reset();
+        TERMINAL.reset();
+        lastMoves = 0;
+        lastSpawns = 0;
+    }
+}
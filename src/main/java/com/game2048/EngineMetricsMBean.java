@@ -0,0 +1,13 @@
+package com.game2048;
+
+// JMX view of the engine counters; rates cover the last reporting interval
+public interface EngineMetricsMBean {
+    long getMoveCount();
+    long getSpawnCount();
+    long getTerminalCheckCount();
+    double getMovesPerSecond();
+    double getSpawnsPerSecond();
+    double getAllocatedBytesPerSecond();
+    double getAllocatedBytesPerMove();
+    void reset();
+}
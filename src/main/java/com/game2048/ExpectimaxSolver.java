@@ -0,0 +1,208 @@
+package com.game2048;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Expectimax search over 4x4 boards: max nodes pick a direction, chance nodes
+// average over every empty cell receiving a 2 (90%) or a 4 (10%), matching addRandomTile.
+public final class ExpectimaxSolver implements AiPlayer {
+    public static final int ADAPTIVE_DEPTH = 0;
+
+    static final float PROBABILITY_CUTOFF = 0.0001f;
+    private static final int TABLE_BITS = 20;
+    private static final int MIN_ADAPTIVE_DEPTH = 3;
+    private static final int MAX_ADAPTIVE_DEPTH = 8;
+    // Power of two: the shared node counter is masked with it
+    private static final int CLOCK_CHECK_INTERVAL = 1024;
+
+    private final int maxDepth;
+    private final long timeBudgetNanos;
+    private final float probabilityCutoff;
+    private final BoardEvaluator evaluator;
+    // Entries depend only on board and depth, so each thread keeps its table across moves
+    private final ThreadLocal<TranspositionTable> tables =
+            ThreadLocal.withInitial(() -> new TranspositionTable(TABLE_BITS));
+
+    // maxDepth of ADAPTIVE_DEPTH picks a depth from the number of distinct tiles;
+    // a zero time budget searches every depth up to the limit
+    public ExpectimaxSolver(int maxDepth, Duration timeBudget, float probabilityCutoff) {
+        this(maxDepth, timeBudget, probabilityCutoff, WeightedEvaluator.defaults());
+    }
+
+    // evaluator scores the leaves and must be symmetric (see BoardEvaluator)
+    public ExpectimaxSolver(int maxDepth, Duration timeBudget, float probabilityCutoff, BoardEvaluator evaluator) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Depth must not be negative: " + maxDepth);
+        }
+        if (timeBudget.isNegative()) {
+            throw new IllegalArgumentException("Time budget must not be negative: " + timeBudget);
+        }
+        this.maxDepth = maxDepth;
+        this.timeBudgetNanos = timeBudget.toNanos();
+        this.probabilityCutoff = probabilityCutoff;
+        this.evaluator = evaluator;
+    }
+
+    public static ExpectimaxSolver withDepth(int maxDepth) {
+        return new ExpectimaxSolver(maxDepth, Duration.ZERO, PROBABILITY_CUTOFF);
+    }
+
+    public static ExpectimaxSolver withTimeBudget(Duration timeBudget) {
+        return new ExpectimaxSolver(ADAPTIVE_DEPTH, timeBudget, PROBABILITY_CUTOFF);
+    }
+
+    @Override
+    public Optional<Direction> chooseMove(GameBoard board) {
+        return Optional.ofNullable(bestMove(BitBoard.fromGameBoard(board)));
+    }
+
+    // Returns null when no direction changes the board
+    public Direction bestMove(long board) {
+        Deadline deadline = new Deadline(System.nanoTime() + timeBudgetNanos, timeBudgetNanos > 0);
+        TranspositionTable table = tables.get();
+        Search search = new Search(table, evaluator, probabilityCutoff, deadline);
+        int depthLimit = depthLimit(maxDepth, board);
+
+        // Iterative deepening: a depth interrupted by the deadline falls back to the last complete one
+        Direction best = new Search(table, evaluator, probabilityCutoff, Deadline.NONE).bestMove(board, 1);
+        for (int depth = 2; depth <= depthLimit && best != null; depth++) {
+            try {
+                best = search.bestMove(board, depth);
+            } catch (SearchTimeout timeout) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    static int depthLimit(int maxDepth, long board) {
+        return maxDepth == ADAPTIVE_DEPTH ? adaptiveDepth(board) : maxDepth;
+    }
+
+    static int adaptiveDepth(long board) {
+        int seen = 0;
+        for (int shift = 0; shift < 64; shift += 4) {
+            seen |= 1 << ((board >>> shift) & 0xF);
+        }
+        int distinct = Integer.bitCount(seen & ~1);
+        return Math.max(MIN_ADAPTIVE_DEPTH, Math.min(MAX_ADAPTIVE_DEPTH, distinct - 2));
+    }
+
+    // Thrown to unwind a search that ran past its deadline; shared, without a stack trace
+    static final class SearchTimeout extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        static final SearchTimeout INSTANCE = new SearchTimeout();
+
+        private SearchTimeout() {
+            super("Search deadline exceeded", null, false, false);
+        }
+    }
+
+    // Deadline of one move decision, shared by every search working on it. The clock is read once
+    // per CLOCK_CHECK_INTERVAL nodes counted across all of them, so short-lived searches (one per
+    // fork-join task) still check it; once one sees it pass, the flag stops the others.
+    static final class Deadline {
+        static final Deadline NONE = new Deadline(0, false);
+
+        private final long deadline;
+        private final boolean timed;
+        private final AtomicInteger nodes = new AtomicInteger();
+        private volatile boolean expired;
+
+        Deadline(long deadline, boolean timed) {
+            this.deadline = deadline;
+            this.timed = timed;
+        }
+
+        void check() {
+            if (!timed) {
+                return;
+            }
+            if (expired) {
+                throw SearchTimeout.INSTANCE;
+            }
+            if ((nodes.incrementAndGet() & (CLOCK_CHECK_INTERVAL - 1)) == 0 && System.nanoTime() - deadline > 0) {
+                expired = true;
+                throw SearchTimeout.INSTANCE;
+            }
+        }
+    }
+
+    // State for one move decision; depth counts chance layers still to expand
+    static final class Search {
+        private final TranspositionTable table;
+        private final BoardEvaluator evaluator;
+        private final float probabilityCutoff;
+        private final Deadline deadline;
+
+        Search(TranspositionTable table, BoardEvaluator evaluator, float probabilityCutoff, Deadline deadline) {
+            this.table = table;
+            this.evaluator = evaluator;
+            this.probabilityCutoff = probabilityCutoff;
+            this.deadline = deadline;
+        }
+
+        Direction bestMove(long board, int depth) {
+            Direction best = null;
+            float bestValue = Float.NEGATIVE_INFINITY;
+            for (Direction direction : Direction.values()) {
+                float value = moveValue(board, direction, depth);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = direction;
+                }
+            }
+            return best;
+        }
+
+        // Value of playing a direction, or negative infinity when it does not change the board
+        float moveValue(long board, Direction direction, int depth) {
+            long moved = BitBoard.slide(board, direction);
+            if (moved == board) {
+                return Float.NEGATIVE_INFINITY;
+            }
+            return chanceNode(moved, depth, 1f);
+        }
+
+        float maxNode(long board, int depth, float probability) {
+            float best = 0f;
+            for (Direction direction : Direction.values()) {
+                long moved = BitBoard.slide(board, direction);
+                if (moved != board) {
+                    best = Math.max(best, chanceNode(moved, depth, probability));
+                }
+            }
+            return best;
+        }
+
+        float chanceNode(long board, int depth, float probability) {
+            if (depth <= 0 || probability < probabilityCutoff) {
+                return (float) evaluator.evaluate(board);
+            }
+            // Symmetric boards have the same value under a symmetric evaluator, so they share an entry
+            long key = BitBoard.canonical(board);
+            long cached = table.lookup(key, depth);
+            if (cached >= 0) {
+                return Float.intBitsToFloat((int) cached);
+            }
+            deadline.check();
+
+            long empty = BitBoard.emptyMask(board);
+            int count = Long.bitCount(empty);
+            float twoProbability = probability * 0.9f / count;
+            float fourProbability = probability * 0.1f / count;
+            float sum = 0f;
+            while (empty != 0) {
+                long cell = Long.lowestOneBit(empty);
+                empty ^= cell;
+                sum += 0.9f * maxNode(board | cell, depth - 1, twoProbability);
+                sum += 0.1f * maxNode(board | (cell << 1), depth - 1, fourProbability);
+            }
+            float value = sum / count;
+            table.store(key, depth, value);
+            return value;
+        }
+    }
+}
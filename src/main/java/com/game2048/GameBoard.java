@@ -1,8 +1,9 @@
 package com.game2048;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -20,245 +21,428 @@ class MoveResult {
     public boolean hasChanged() { return changed; }
 }
 
-class LineMoveResult {
-    private final List<Tile> tiles;
-    private final int score;
-    private final boolean changed;
+// Summary kept up to date by every board transition so that game-over and win checks are O(1)
+class BoardStats {
+    private final int emptyCount;
+    private final int maxTile;
+    // Whether two equal, non-empty tiles are adjacent horizontally or vertically
+    private final boolean mergeAvailable;
+
+    public BoardStats(int emptyCount, int maxTile, boolean mergeAvailable) {
+        this.emptyCount = emptyCount;
+        this.maxTile = maxTile;
+        this.mergeAvailable = mergeAvailable;
+    }
 
-    public LineMoveResult(List<Tile> tiles, int score, boolean changed) {
-        this.tiles = tiles;
-        this.score = score;
-        this.changed = changed;
+    // Full scan, used only when a board is built from scratch
+    public static BoardStats scan(int[] cells, int size) {
+        int emptyCount = 0;
+        int maxTile = 0;
+        boolean mergeAvailable = false;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int current = cells[i * size + j];
+                if (current == 0) {
+                    emptyCount++;
+                    continue;
+                }
+                maxTile = Math.max(maxTile, current);
+                mergeAvailable = mergeAvailable
+                        || (j < size - 1 && current == cells[i * size + j + 1])
+                        || (i < size - 1 && current == cells[(i + 1) * size + j]);
+            }
+        }
+        return new BoardStats(emptyCount, maxTile, mergeAvailable);
     }
 
-    public List<Tile> getTiles() { return tiles; }
-    public int getScore() { return score; }
-    public boolean hasChanged() { return changed; }
+    // Stats after a tile lands on a previously empty cell
+    public BoardStats withSpawn(int value, boolean matchesNeighbour) {
+        return new BoardStats(emptyCount - 1, Math.max(maxTile, value), mergeAvailable || matchesNeighbour);
+    }
+
+    public int getEmptyCount() { return emptyCount; }
+    public int getMaxTile() { return maxTile; }
+    public boolean isMergeAvailable() { return mergeAvailable; }
 }
 
+// Immutable board over a flat row-major array of tile values. Tiles are handed out
+// as shared Tile instances (see Tile.of), so a move allocates one new array and
+// no per-cell objects.
+//
+// Spawns are part of the value too: each board carries a 64-bit spawn state, and the tile
+// that move or addRandomTile places is derived from that state and the direction, with the
+// new board getting the derived state. Calling move twice on the same board gives the same
+// board, trial moves by a search cannot change what the game sees next, and boards can be
+// shared between threads freely.
 public final class GameBoard {
     private final int size;
-    private final List<List<Tile>> grid;
+    private final int[] cells;
     private final int score;
     private final boolean gameOver;
     private final boolean won;
-
-    // Private constructor
-    private GameBoard(int size, List<List<Tile>> grid, int score, boolean gameOver, boolean won) {
+    private final BoardStats stats;
+    // Cell index of the tile spawned to produce this board, or -1
+    private final int lastSpawn;
+    // Lazily computed bitmask of Direction.mask() values; -1 until first asked (benign race, same result)
+    private int legalMoves = -1;
+    // Seed of the next spawn (see nextSpawnState)
+    private final long spawnState;
+
+    // SplitMix64 increment; spawn states step by a multiple of it before mixing
+    private static final long SPAWN_GAMMA = 0x9E3779B97F4A7C15L;
+    // Chance of a 4 (10%) as a threshold on 32 uniform bits
+    private static final long FOUR_THRESHOLD = (long) (0.1 * (1L << 32));
+    // Salt for spawns not tied to a move (addRandomTile); moves use the direction ordinal
+    private static final int NO_DIRECTION = Direction.values().length;
+
+    // Private constructor; cells must not be shared with any other board
+    private GameBoard(int size, int[] cells, int score, boolean gameOver, boolean won,
+                      BoardStats stats, int lastSpawn, long spawnState) {
         this.size = size;
-        this.grid = grid;
+        this.cells = cells;
         this.score = score;
         this.gameOver = gameOver;
         this.won = won;
+        this.stats = stats;
+        this.lastSpawn = lastSpawn;
+        this.spawnState = spawnState;
     }
 
     // Static factory method to create initial board
     public static GameBoard createInitialBoard(int size) {
-        List<List<Tile>> emptyGrid = initializeEmptyGrid(size);
-        GameBoard emptyBoard = new GameBoard(size, emptyGrid, 0, false, false);
+        return createInitialBoard(size, ThreadLocalRandom.current().nextLong());
+    }
+
+    // Same seed, same sequence of spawns for the same moves
+    public static GameBoard createInitialBoard(int size, long seed) {
+        if (size < 2) {
+            throw new IllegalArgumentException("Board size must be at least 2: " + size);
+        }
+        BoardStats stats = new BoardStats(size * size, 0, false);
+        GameBoard emptyBoard = new GameBoard(size, new int[size * size], 0, false, false, stats, -1, seed);
         return emptyBoard.addRandomTile().addRandomTile();
     }
 
-    private static List<List<Tile>> initializeEmptyGrid(int size) {
-        return IntStream.range(0, size)
-                .mapToObj(row -> IntStream.range(0, size)
-                        .mapToObj(col -> new Tile(0, row, col))
-                        .collect(Collectors.toList()))
-                .collect(Collectors.toList());
+    // Seeds the game with one draw from random; later spawns come from the boards themselves
+    public static GameBoard createInitialBoard(int size, RandomGenerator random) {
+        return createInitialBoard(size, random.nextLong());
+    }
+
+    // Static factory method to rebuild a board from row-major cell values, with a spawn state
+    // from the calling thread's ThreadLocalRandom
+    static GameBoard fromValues(int size, int[] values, int score) {
+        return fromValues(size, values, score, ThreadLocalRandom.current().nextLong());
+    }
+
+    static GameBoard fromValues(int size, int[] values, int score, RandomGenerator random) {
+        return fromValues(size, values, score, random.nextLong());
+    }
+
+    static GameBoard fromValues(int size, int[] values, int score, long spawnState) {
+        if (values.length != size * size) {
+            throw new IllegalArgumentException("Expected " + (size * size) + " values but got " + values.length);
+        }
+        int[] cells = values.clone();
+        BoardStats stats = BoardStats.scan(cells, size);
+        boolean terminal = stats.getEmptyCount() == 0 && !stats.isMergeAvailable();
+        return new GameBoard(size, cells, score, terminal, stats.getMaxTile() >= 2048, stats, -1, spawnState);
     }
 
     public List<Tile> getAllTiles() {
-        return grid.stream()
-                .flatMap(List::stream)
+        return IntStream.range(0, cells.length)
+                .mapToObj(i -> Tile.of(cells[i], i / size, i % size))
                 .collect(Collectors.toList());
     }
 
     public Tile getTile(int row, int col) {
+        return Tile.of(getValue(row, col), row, col);
+    }
+
+    public int getValue(int row, int col) {
         if (row < 0 || row >= size || col < 0 || col >= size) {
             throw new IllegalArgumentException("Invalid position: (" + row + ", " + col + ")");
         }
-        return grid.get(row).get(col);
+        return cells[row * size + col];
+    }
+
+    // The tile spawned by the move that produced this board, if any
+    public Optional<Tile> getLastSpawn() {
+        if (lastSpawn < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(Tile.of(cells[lastSpawn], lastSpawn / size, lastSpawn % size));
+    }
+
+    int getLastSpawnIndex() { return lastSpawn; }
+
+    // Copies the row-major tile values into target, which must hold size * size values
+    void copyValues(int[] target) {
+        System.arraycopy(cells, 0, target, 0, cells.length);
     }
 
     public GameBoard placeTile(Tile tile) {
-        List<List<Tile>> newGrid = new ArrayList<>();
-        for (int i = 0; i < size; i++) {
-            List<Tile> newRow = new ArrayList<>();
-            for (int j = 0; j < size; j++) {
-                if (i == tile.getRow() && j == tile.getCol()) {
-                    newRow.add(tile);
-                } else {
-                    newRow.add(grid.get(i).get(j));
-                }
-            }
-            newGrid.add(newRow);
+        int row = tile.getRow();
+        int col = tile.getCol();
+        int previous = getValue(row, col);
+        int[] newCells = cells.clone();
+        newCells[row * size + col] = tile.getValue();
+
+        // Filling an empty cell only needs the new tile's neighbours; overwriting a tile needs a rescan
+        BoardStats newStats;
+        if (previous == 0 && !tile.isEmpty()) {
+            newStats = stats.withSpawn(tile.getValue(), matchesNeighbour(row, col, tile.getValue()));
+        } else {
+            newStats = BoardStats.scan(newCells, size);
         }
-        return new GameBoard(size, newGrid, score, gameOver, won);
+        return new GameBoard(size, newCells, score, gameOver, won, newStats, -1, spawnState);
+    }
+
+    private boolean matchesNeighbour(int row, int col, int value) {
+        return (row > 0 && cells[(row - 1) * size + col] == value)
+                || (row < size - 1 && cells[(row + 1) * size + col] == value)
+                || (col > 0 && cells[row * size + col - 1] == value)
+                || (col < size - 1 && cells[row * size + col + 1] == value);
     }
 
+    // Derived from this board's spawn state, like move; the same board always gets the same tile
     public GameBoard addRandomTile() {
-        List<Tile> emptyTiles = getAllTiles().stream()
-                .filter(Tile::isEmpty)
-                .collect(Collectors.toList());
+        return spawnRandomTile(nextSpawnState(spawnState, NO_DIRECTION), false);
+    }
+
+    // SplitMix64-style step salted with the direction, so different moves from one board draw
+    // independently. The result seeds the spawn and becomes the new board's spawn state.
+    private static long nextSpawnState(long state, int salt) {
+        return TranspositionTable.mix64(state + (salt + 1) * SPAWN_GAMMA);
+    }
+
+    // inPlace writes into this board's own cells, which is only allowed for a board nobody else has seen yet
+    private GameBoard spawnRandomTile(long newState, boolean inPlace) {
+        if (EngineMetrics.ENABLED) {
+            long start = EngineMetrics.SPAWN.start();
+            GameBoard result = spawnRandomTileUnmetered(newState, inPlace);
+            EngineMetrics.SPAWN.stop(start);
+            return result;
+        }
+        return spawnRandomTileUnmetered(newState, inPlace);
+    }
 
-        if (emptyTiles.isEmpty()) {
+    private GameBoard spawnRandomTileUnmetered(long newState, boolean inPlace) {
+        int emptyCount = stats.getEmptyCount();
+        if (emptyCount == 0) {
             return this;
         }
 
-        Random random = new Random();
-        Tile randomTile = emptyTiles.get(random.nextInt(emptyTiles.size()));
-        int newValue = random.nextDouble() < 0.9 ? 2 : 4;
+        // The high 32 bits pick the n-th empty cell in row-major order, the low 32 bits the value
+        int target = (int) (((newState >>> 32) * emptyCount) >>> 32);
+        int newValue = (newState & 0xFFFFFFFFL) < FOUR_THRESHOLD ? 4 : 2;
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == 0 && target-- == 0) {
+                return spawnAt(i, newValue, newState, inPlace);
+            }
+        }
+        throw new IllegalStateException("Empty cell count out of sync");
+    }
 
-        return placeTile(new Tile(newValue, randomTile.getRow(), randomTile.getCol()));
+    private GameBoard spawnAt(int cell, int value, long newState, boolean inPlace) {
+        BoardStats newStats = stats.withSpawn(value, matchesNeighbour(cell / size, cell % size, value));
+        int[] newCells = inPlace ? cells : cells.clone();
+        newCells[cell] = value;
+        return new GameBoard(size, newCells, score, gameOver, won, newStats, cell, newState);
     }
 
+    // Slides, then spawns a tile derived from this board's spawn state and the direction (see the
+    // class comment); returns this board when nothing moved
     public GameBoard move(Direction direction) {
-        MoveResult result = performMove(direction);
-        GameBoard newBoard = result.getBoard();
-        
-        if (!result.hasChanged()) {
-            return newBoard;
+        if (EngineMetrics.ENABLED) {
+            long start = EngineMetrics.MOVE.start();
+            GameBoard result = moveUnmetered(direction);
+            EngineMetrics.MOVE.stop(start);
+            return result;
+        }
+        return moveUnmetered(direction);
+    }
+
+    private GameBoard moveUnmetered(Direction direction) {
+        GameBoard newBoard = slide(direction);
+
+        // Callers can detect a no-op move by identity
+        if (newBoard == this) {
+            return this;
+        }
+
+        // The slid board is still private to this call, so the spawn can reuse its cells
+        return finishMove(newBoard.spawnRandomTile(nextSpawnState(spawnState, direction.ordinal()), true));
+    }
+
+    // Same as move, and also reports where every tile went; meant for animation, not search
+    public MoveDiff moveWithDiff(Direction direction) {
+        return MoveDiff.of(this, direction, move(direction));
+    }
+
+    // Replays a move whose spawn is already known, e.g. from a game record; the spawn state
+    // advances as in move, so random play can continue from the result
+    GameBoard move(Direction direction, int spawnCell, int spawnValue) {
+        GameBoard newBoard = slide(direction);
+        if (newBoard == this) {
+            throw new IllegalArgumentException("Move " + direction + " does not change the board");
+        }
+        if (newBoard.cells[spawnCell] != 0) {
+            throw new IllegalArgumentException("Spawn cell " + spawnCell + " is not empty after " + direction);
         }
+        long newState = nextSpawnState(spawnState, direction.ordinal());
+        return finishMove(newBoard.spawnAt(spawnCell, spawnValue, newState, true));
+    }
 
-        newBoard = newBoard.addRandomTile();
+    private GameBoard finishMove(GameBoard newBoard) {
         boolean newGameOver = newBoard.isTerminalState();
         boolean newWon = newBoard.hasWon() || this.won;
 
-        return new GameBoard(size, newBoard.grid, newBoard.score, newGameOver, newWon);
+        return new GameBoard(size, newBoard.cells, newBoard.score, newGameOver, newWon, newBoard.stats,
+                newBoard.lastSpawn, newBoard.spawnState);
     }
 
-    private MoveResult performMove(Direction direction) {
-        List<List<Tile>> newGrid = new ArrayList<>();
-        int newScore = this.score;
-        boolean changed = false;
-
-        for (int i = 0; i < size; i++) {
-            List<Tile> line = getLine(i, direction);
-            LineMoveResult lineResult = moveLine(line);
-            
-            newScore += lineResult.getScore();
-            changed = changed || lineResult.hasChanged();
-            
-            List<Tile> newLine = lineResult.getTiles();
-            setLine(newGrid, i, direction, newLine);
+    // The rotation or reflection of this board whose row-major cells sort first, so all 8 symmetric
+    // variants share one canonical board. Score and game state carry over; the last spawn does not.
+    public GameBoard canonical() {
+        int symmetry = BoardSymmetry.canonicalSymmetry(cells, size);
+        if (symmetry == BoardSymmetry.IDENTITY && lastSpawn < 0) {
+            return this;
         }
+        int[] transformed = new int[cells.length];
+        BoardSymmetry.apply(cells, size, symmetry, transformed);
+        return new GameBoard(size, transformed, score, gameOver, won, stats, -1, spawnState);
+    }
 
-        // Reset merged flags for next move
-        List<List<Tile>> resetGrid = newGrid.stream()
-                .map(row -> row.stream()
-                        .map(tile -> tile.withMerged(false))
-                        .collect(Collectors.toList()))
-                .collect(Collectors.toList());
+    // 64-bit hash of the canonical tiles, equal for all symmetric variants; score is not included
+    public long canonicalHash() {
+        byte[] exponents = new byte[cells.length];
+        BoardSymmetry.canonicalExponents(cells, size, exponents);
+        return BoardSymmetry.hash(exponents);
+    }
 
-        return new MoveResult(new GameBoard(size, resetGrid, newScore, gameOver, won), changed);
+    // Slides and merges without spawning a tile; the score delta is the difference of getScore().
+    // Returns this board when the direction would not change anything.
+    public GameBoard slide(Direction direction) {
+        if (!canMove(direction)) {
+            return this;
+        }
+        MoveResult result = performMove(direction);
+        return result.hasChanged() ? result.getBoard() : this;
     }
 
-    private List<Tile> getLine(int index, Direction direction) {
-        return IntStream.range(0, size)
-                .mapToObj(i -> {
-                    switch (direction) {
-                        case LEFT: return getTile(index, i);
-                        case RIGHT: return getTile(index, size - 1 - i);
-                        case UP: return getTile(i, index);
-                        case DOWN: return getTile(size - 1 - i, index);
-                        default: throw new IllegalArgumentException("Invalid direction");
-                    }
-                })
-                .collect(Collectors.toList());
+    public boolean canMove(Direction direction) {
+        return (legalMoves() & direction.mask()) != 0;
     }
 
-    private void setLine(List<List<Tile>> grid, int index, Direction direction, List<Tile> line) {
-        for (int i = 0; i < size; i++) {
-            int row, col;
-            switch (direction) {
-                case LEFT: row = index; col = i; break;
-                case RIGHT: row = index; col = size - 1 - i; break;
-                case UP: row = i; col = index; break;
-                case DOWN: row = size - 1 - i; col = index; break;
-                default: throw new IllegalArgumentException("Invalid direction");
-            }
-            
-            while (grid.size() <= row) {
-                grid.add(new ArrayList<>());
-            }
-            List<Tile> currentRow = grid.get(row);
-            while (currentRow.size() <= col) {
-                currentRow.add(new Tile(0, row, currentRow.size()));
+    // Directions that would change the board, as a bitmask of Direction.mask(), found in one scan
+    public int legalMoves() {
+        int mask = legalMoves;
+        if (mask < 0) {
+            mask = computeLegalMoves();
+            legalMoves = mask;
+        }
+        return mask;
+    }
+
+    // A direction is legal if some tile has an empty cell or an equal tile next to it on that side
+    private int computeLegalMoves() {
+        int horizontal = Direction.LEFT.mask() | Direction.RIGHT.mask();
+        int vertical = Direction.UP.mask() | Direction.DOWN.mask();
+        int all = horizontal | vertical;
+        int mask = 0;
+        for (int i = 0; i < size && mask != all; i++) {
+            for (int j = 0; j < size - 1; j++) {
+                mask |= pairMoves(cells[i * size + j], cells[i * size + j + 1], Direction.LEFT, Direction.RIGHT);
+                mask |= pairMoves(cells[j * size + i], cells[(j + 1) * size + i], Direction.UP, Direction.DOWN);
             }
-            currentRow.set(col, line.get(i).withPosition(row, col));
         }
+        return mask;
     }
 
-    private LineMoveResult moveLine(List<Tile> line) {
-        List<Tile> nonEmptyTiles = line.stream()
-                .filter(tile -> !tile.isEmpty())
-                .collect(Collectors.toList());
+    // Moves enabled by two neighbouring cells, the first one lying towards the given direction
+    static int pairMoves(int first, int second, Direction towardsFirst, Direction towardsSecond) {
+        if (first == 0) {
+            return second == 0 ? 0 : towardsFirst.mask();
+        }
+        if (second == 0) {
+            return towardsSecond.mask();
+        }
+        return first == second ? towardsFirst.mask() | towardsSecond.mask() : 0;
+    }
+
+    private MoveResult performMove(Direction direction) {
+        int[] newCells = cells.clone();
+        int newScore = this.score;
+        boolean changed = false;
+        int emptyCount = 0;
+        int maxTile = 0;
+        boolean mergeAvailable = false;
+
+        for (int index = 0; index < size; index++) {
+            // Lines are walked from the edge the tiles move towards; lineStep separates neighbouring lines
+            int start, step, lineStep;
+            switch (direction) {
+                case LEFT: start = index * size; step = 1; lineStep = size; break;
+                case RIGHT: start = index * size + size - 1; step = -1; lineStep = size; break;
+                case UP: start = index; step = size; lineStep = 1; break;
+                case DOWN: start = (size - 1) * size + index; step = -size; lineStep = 1; break;
+                default: throw new IllegalArgumentException("Invalid direction");
+            }
 
-        List<Tile> result = new ArrayList<>();
-        int score = 0;
-        boolean changed = nonEmptyTiles.size() != line.size();
-        int i = 0;
-
-        while (i < nonEmptyTiles.size()) {
-            Tile current = nonEmptyTiles.get(i);
-            
-            if (i < nonEmptyTiles.size() - 1 && 
-                current.getValue() == nonEmptyTiles.get(i + 1).getValue()) {
-                // Merge tiles
-                Tile merged = current.mergeWith(nonEmptyTiles.get(i + 1));
-                result.add(merged);
-                score += merged.getValue();
-                i += 2;
+            int gained = LineSlider.slide(newCells, start, step, size);
+            if (gained >= 0) {
                 changed = true;
-            } else {
-                result.add(current);
-                i += 1;
+                newScore += gained;
             }
-        }
 
-        // Pad with empty tiles
-        while (result.size() < size) {
-            result.add(new Tile(0, -1, -1));
+            // Track stats while the line is at hand: merges along it, then against the previous line
+            for (int k = 0, cell = start; k < size; k++, cell += step) {
+                int value = newCells[cell];
+                if (value == 0) {
+                    emptyCount += size - k;
+                    break;
+                }
+                maxTile = Math.max(maxTile, value);
+                mergeAvailable = mergeAvailable
+                        || (k > 0 && value == newCells[cell - step])
+                        || (index > 0 && value == newCells[cell - lineStep]);
+            }
         }
 
-        return new LineMoveResult(result, score, changed);
+        BoardStats newStats = new BoardStats(emptyCount, maxTile, mergeAvailable);
+        boolean newWon = won || maxTile >= 2048;
+        GameBoard newBoard = new GameBoard(size, newCells, newScore, gameOver, newWon, newStats, -1, spawnState);
+        return new MoveResult(newBoard, changed);
     }
 
     public boolean hasWon() {
-        return getAllTiles().stream()
-                .anyMatch(tile -> tile.getValue() == 2048);
+        return stats.getMaxTile() >= 2048;
     }
 
     public boolean isTerminalState() {
-        if (getAllTiles().stream().anyMatch(Tile::isEmpty)) {
-            return false;
-        }
-
-        // Check for possible merges
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                int current = getTile(i, j).getValue();
-                if ((j < size - 1 && current == getTile(i, j + 1).getValue()) ||
-                    (i < size - 1 && current == getTile(i + 1, j).getValue())) {
-                    return false;
-                }
-            }
+        if (EngineMetrics.ENABLED) {
+            long start = EngineMetrics.TERMINAL.start();
+            boolean terminal = stats.getEmptyCount() == 0 && !stats.isMergeAvailable();
+            EngineMetrics.TERMINAL.stop(start);
+            return terminal;
         }
-        return true;
+        return stats.getEmptyCount() == 0 && !stats.isMergeAvailable();
     }
 
     // Getters
     public int getSize() { return size; }
+    public int getEmptyCount() { return stats.getEmptyCount(); }
+    public int getMaxTile() { return stats.getMaxTile(); }
     public int getScore() { return score; }
     public boolean isGameOver() { return gameOver; }
     public boolean isWon() { return won; }
 
     @Override
     public String toString() {
-        return grid.stream()
-                .map(row -> row.stream()
-                        .map(tile -> String.valueOf(tile.getValue()))
+        return IntStream.range(0, size)
+                .mapToObj(row -> IntStream.range(0, size)
+                        .mapToObj(col -> String.valueOf(cells[row * size + col]))
                         .collect(Collectors.joining(" ")))
                 .collect(Collectors.joining("\n"));
     }
-}
\ No newline at end of file
+}
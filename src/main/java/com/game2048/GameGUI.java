@@ -4,46 +4,38 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayDeque;
 
 public class GameGUI extends JFrame {
     private GameBoard board;
-    private final JPanel gridPanel;
+    private GameHistory history;
+    private final BoardPanel boardPanel;
     private final JLabel scoreLabel;
     private final JLabel statusLabel;
-    private final Map<Integer, Color> colorMap;
-    private final int tileSize = 100; // Increased tile size
+    static final int MAX_SIZE = 16;
+
+    private final int tileSize; // Starting tile size; tiles rescale with the window
     private final int boardSize;
+    private boolean animated = true;
+    // Arrow keys received since the last drain; applied together, animating only the last move
+    private final ArrayDeque<Direction> pendingMoves = new ArrayDeque<>();
 
     public GameGUI(int size) {
+        if (size < 2 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Board size must be between 2 and " + MAX_SIZE + ": " + size);
+        }
         this.boardSize = size;
+        this.tileSize = Math.max(24, Math.min(100, 720 / size));
         this.board = GameBoard.createInitialBoard(size);
-        this.gridPanel = new JPanel();
+        this.history = new GameHistory(board);
+        this.boardPanel = new BoardPanel(size, tileSize);
         this.scoreLabel = new JLabel("Score: 0");
         this.statusLabel = new JLabel("Game Started");
-        this.colorMap = new HashMap<>();
-        
-        initializeColorMap();
+
         initializeUI();
         updateDisplay();
     }
 
-    private void initializeColorMap() {
-        colorMap.put(0, new Color(0xCDC1B4));
-        colorMap.put(2, new Color(0xEEE4DA));
-        colorMap.put(4, new Color(0xEDE0C8));
-        colorMap.put(8, new Color(0xF2B179));
-        colorMap.put(16, new Color(0xF59563));
-        colorMap.put(32, new Color(0xF67C5F));
-        colorMap.put(64, new Color(0xF65E3B));
-        colorMap.put(128, new Color(0xEDCF72));
-        colorMap.put(256, new Color(0xEDCC61));
-        colorMap.put(512, new Color(0xEDC850));
-        colorMap.put(1024, new Color(0xEDC53F));
-        colorMap.put(2048, new Color(0xEDC22E));
-    }
-
     private void initializeUI() {
         setTitle("2048 Game");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -89,17 +81,14 @@ public class GameGUI extends JFrame {
         mainPanel.setBackground(new Color(0xFAF8EF));
         mainPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
-        // Grid panel
-        gridPanel.setLayout(new GridLayout(boardSize, boardSize, 10, 10));
-        gridPanel.setBackground(new Color(0xBBADA0));
-        gridPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-        mainPanel.add(gridPanel, BorderLayout.CENTER);
+        // Board, painted directly instead of one label per cell
+        mainPanel.add(boardPanel, BorderLayout.CENTER);
         
         add(mainPanel, BorderLayout.CENTER);
 
         // Instructions panel
         JLabel instructions = new JLabel(
-            "Use Arrow Keys to move tiles • R to restart • Combine tiles to reach 2048!",
+            "Use Arrow Keys to move tiles • R to restart • U/Y to undo/redo • A to toggle animations • Combine tiles to reach 2048!",
             SwingConstants.CENTER
         );
         instructions.setFont(new Font("Arial", Font.PLAIN, 12));
@@ -124,11 +113,19 @@ public class GameGUI extends JFrame {
         
         // Request focus for keyboard input
         requestFocusInWindow();
-        
-        System.out.println("Game window initialized. Size: " + getSize());
     }
 
     private void handleKeyPress(KeyEvent e) {
+        // Undo and redo still work once the game has ended
+        boolean ctrl = (e.getModifiersEx() & KeyEvent.CTRL_DOWN_MASK) != 0;
+        if (e.getKeyCode() == KeyEvent.VK_U || (ctrl && e.getKeyCode() == KeyEvent.VK_Z)) {
+            travel(true);
+            return;
+        }
+        if (e.getKeyCode() == KeyEvent.VK_Y) {
+            travel(false);
+            return;
+        }
         if (board.isGameOver() || board.isWon()) {
             return;
         }
@@ -142,66 +139,63 @@ public class GameGUI extends JFrame {
             case KeyEvent.VK_R: 
                 restartGame(); 
                 return;
+            case KeyEvent.VK_A:
+                animated = !animated;
+                statusLabel.setText(animated ? "Animations on" : "Animations off");
+                return;
         }
 
         if (direction != null) {
-            board = board.move(direction);
-            updateDisplay();
-            checkGameStatus();
+            // Key events that arrive together are drained in one pass, so a burst of
+            // presses costs one repaint instead of queueing a frame per key
+            if (pendingMoves.isEmpty()) {
+                SwingUtilities.invokeLater(this::applyPendingMoves);
+            }
+            pendingMoves.add(direction);
         }
     }
 
-    private void updateDisplay() {
-        scoreLabel.setText("Score: " + board.getScore());
-        gridPanel.removeAll();
-
-        for (int i = 0; i < boardSize; i++) {
-            for (int j = 0; j < boardSize; j++) {
-                Tile tile = board.getTile(i, j);
-                JLabel tileLabel = createTileLabel(tile);
-                gridPanel.add(tileLabel);
+    private void applyPendingMoves() {
+        MoveDiff last = null;
+        while (!pendingMoves.isEmpty() && !board.isGameOver() && !board.isWon()) {
+            MoveDiff diff = history.moveWithDiff(pendingMoves.poll());
+            if (diff.hasChanged()) {
+                board = diff.getBoard();
+                last = diff;
             }
         }
-
-        gridPanel.revalidate();
-        gridPanel.repaint();
-        
-        // Debug info
-        System.out.println("Display updated. Score: " + board.getScore());
-        System.out.println("Board state:\n" + board.toString());
-    }
-
-    private JLabel createTileLabel(Tile tile) {
-        JLabel label = new JLabel("", SwingConstants.CENTER);
-        label.setOpaque(true);
-        label.setPreferredSize(new Dimension(tileSize, tileSize));
-
-        int value = tile.getValue();
-        Color backgroundColor = colorMap.getOrDefault(value, new Color(0x3C3A32));
-        Color foregroundColor = value < 16 ? new Color(0x776E65) : Color.WHITE;
-
-        // Adjust font size based on value
-        Font font;
-        if (value == 0) {
-            font = new Font("Arial", Font.BOLD, 24);
-        } else if (value < 100) {
-            font = new Font("Arial", Font.BOLD, 36);
-        } else if (value < 1000) {
-            font = new Font("Arial", Font.BOLD, 32);
+        pendingMoves.clear();
+        if (last == null) {
+            return;
+        }
+        scoreLabel.setText("Score: " + board.getScore());
+        if (animated) {
+            boardPanel.animate(last);
         } else {
-            font = new Font("Arial", Font.BOLD, 24);
+            boardPanel.setBoard(board);
         }
+        checkGameStatus();
+    }
 
-        label.setFont(font);
-        label.setBackground(backgroundColor);
-        label.setForeground(foregroundColor);
-        label.setBorder(BorderFactory.createLineBorder(new Color(0xBBADA0), 2));
-
-        if (value != 0) {
-            label.setText(String.valueOf(value));
+    // Steps back (undo) or forward (redo) through the history, after any moves still pending
+    private void travel(boolean back) {
+        applyPendingMoves();
+        boolean moved = back ? history.undo() : history.redo();
+        if (!moved) {
+            statusLabel.setText(back ? "Nothing to undo" : "Nothing to redo");
+            return;
         }
+        board = history.current();
+        updateDisplay();
+        statusLabel.setText((back ? "Undo" : "Redo") + " (" + history.getUndoCount() + " undo, "
+                + history.getRedoCount() + " redo available)");
+        statusLabel.setForeground(new Color(0x776E65));
+    }
 
-        return label;
+    // Runs on the EDT for every move: only the changed cells are repainted
+    private void updateDisplay() {
+        scoreLabel.setText("Score: " + board.getScore());
+        boardPanel.setBoard(board);
     }
 
     private void checkGameStatus() {
@@ -226,7 +220,9 @@ public class GameGUI extends JFrame {
     }
 
     private void restartGame() {
+        pendingMoves.clear();
         this.board = GameBoard.createInitialBoard(boardSize);
+        this.history = new GameHistory(board);
         updateDisplay();
         statusLabel.setText("Game Restarted");
         statusLabel.setForeground(new Color(0x776E65));
@@ -237,13 +233,19 @@ public class GameGUI extends JFrame {
         // Use System.out to debug startup
         System.out.println("Starting 2048 Game...");
         
+        int size;
+        try {
+            size = parseSize(args);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid arguments: " + e.getMessage());
+            System.out.println("Usage: [--size N]   (N from 2 to " + MAX_SIZE + ", default 4)");
+            return;
+        }
+
         SwingUtilities.invokeLater(() -> {
             try {
-                int size = 4; // Configurable board size
-                System.out.println("Creating game with board size: " + size);
                 GameGUI game = new GameGUI(size);
                 game.setVisible(true);
-                System.out.println("Game window should be visible now");
             } catch (Exception e) {
                 e.printStackTrace();
                 JOptionPane.showMessageDialog(null, 
@@ -253,4 +255,24 @@ public class GameGUI extends JFrame {
             }
         });
     }
+
+    // Board size from "--size N" or a bare "N"; 4 when not given
+    static int parseSize(String[] args) {
+        if (args.length == 0) {
+            return 4;
+        }
+        String value;
+        if (args.length == 2 && args[0].equals("--size")) {
+            value = args[1];
+        } else if (args.length == 1) {
+            value = args[0];
+        } else {
+            throw new IllegalArgumentException("Unexpected arguments: " + String.join(" ", args));
+        }
+        int size = Integer.parseInt(value);
+        if (size < 2 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Board size must be between 2 and " + MAX_SIZE + ": " + size);
+        }
+        return size;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,166 @@
+package com.game2048;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Undo/redo history of one game. Instead of a board per move it keeps one move word per
+// move (direction and spawn, packed as in GameRecordWriter) and a keyframe board every
+// KEYFRAME_INTERVAL moves. Undo replays from the nearest keyframe, redo re-applies one word.
+// When the estimated size passes the memory budget the oldest keyframe and its moves are
+// dropped, so very long games keep their recent history in bounded memory. Not thread-safe.
+public final class GameHistory {
+    public static final long DEFAULT_MEMORY_BUDGET = 1 << 20;
+
+    static final int KEYFRAME_INTERVAL = 64;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    // Segment object, list slot and array headers
+    private static final int SEGMENT_OVERHEAD = 64;
+
+    // A keyframe and the moves played from it
+    private static final class Segment {
+        final GameBoard start;
+        int[] words = new int[4];
+        int count;
+
+        Segment(GameBoard start) {
+            this.start = start;
+        }
+
+        void add(int word) {
+            if (count == words.length) {
+                words = Arrays.copyOf(words, Math.min(KEYFRAME_INTERVAL, count * 2));
+            }
+            words[count++] = word;
+        }
+    }
+
+    private final long memoryBudget;
+    private final long segmentBytes;
+    private final List<Segment> segments = new ArrayList<>();
+    private GameBoard current;
+    // Moves played from the first keyframe to current, and stored in total (the rest can be redone)
+    private int position;
+    private int total;
+
+    public GameHistory(GameBoard initial) {
+        this(initial, DEFAULT_MEMORY_BUDGET);
+    }
+
+    public GameHistory(GameBoard initial, long memoryBudget) {
+        int cells = initial.getSize() * initial.getSize();
+        this.segmentBytes = SEGMENT_OVERHEAD + 4L * KEYFRAME_INTERVAL + 4L * cells + 128;
+        if (memoryBudget < segmentBytes) {
+            throw new IllegalArgumentException("Memory budget must be at least " + segmentBytes + " bytes");
+        }
+        this.memoryBudget = memoryBudget;
+        this.current = initial;
+        segments.add(new Segment(initial));
+    }
+
+    // Plays the move and records it, discarding anything that could have been redone.
+    // Returns the new board, or the current one if the direction changes nothing.
+    public GameBoard move(Direction direction) {
+        GameBoard next = current.move(direction);
+        if (next != current) {
+            record(direction, next);
+        }
+        return current;
+    }
+
+    // Same as move, also reporting where every tile went
+    public MoveDiff moveWithDiff(Direction direction) {
+        MoveDiff diff = current.moveWithDiff(direction);
+        if (diff.hasChanged()) {
+            record(direction, diff.getBoard());
+        }
+        return diff;
+    }
+
+    private void record(Direction direction, GameBoard next) {
+        truncate();
+        int index = position / KEYFRAME_INTERVAL;
+        if (index == segments.size()) {
+            segments.add(new Segment(current));
+        }
+        segments.get(index).add(pack(direction, next));
+        position++;
+        total++;
+        current = next;
+        trimToBudget();
+    }
+
+    public boolean undo() {
+        if (position == 0) {
+            return false;
+        }
+        position--;
+        Segment segment = segments.get(position / KEYFRAME_INTERVAL);
+        GameBoard board = segment.start;
+        for (int i = 0; i < position % KEYFRAME_INTERVAL; i++) {
+            board = apply(board, segment.words[i]);
+        }
+        current = board;
+        return true;
+    }
+
+    public boolean redo() {
+        if (position == total) {
+            return false;
+        }
+        current = apply(current, segments.get(position / KEYFRAME_INTERVAL).words[position % KEYFRAME_INTERVAL]);
+        position++;
+        return true;
+    }
+
+    private void truncate() {
+        if (position == total) {
+            return;
+        }
+        int index = position / KEYFRAME_INTERVAL;
+        while (segments.size() > index + 1) {
+            segments.remove(segments.size() - 1);
+        }
+        if (index < segments.size()) {
+            segments.get(index).count = position % KEYFRAME_INTERVAL;
+        }
+        total = position;
+    }
+
+    // Drops whole keyframes from the start; the segment holding the current board always stays
+    private void trimToBudget() {
+        while (getMemoryUsage() > memoryBudget && position >= KEYFRAME_INTERVAL) {
+            segments.remove(0);
+            position -= KEYFRAME_INTERVAL;
+            total -= KEYFRAME_INTERVAL;
+        }
+    }
+
+    static int pack(Direction direction, GameBoard after) {
+        int spawn = after.getLastSpawnIndex();
+        int size = after.getSize();
+        boolean four = spawn >= 0 && after.getValue(spawn / size, spawn % size) == 4;
+        return direction.ordinal() | (four ? 1 << 2 : 0) | (spawn + 1) << 3;
+    }
+
+    static GameBoard apply(GameBoard board, int word) {
+        Direction direction = DIRECTIONS[word & 3];
+        int spawnCell = (word >>> 3) - 1;
+        if (spawnCell < 0) {
+            return board.slide(direction);
+        }
+        return board.move(direction, spawnCell, (word & 4) != 0 ? 4 : 2);
+    }
+
+    public GameBoard current() { return current; }
+    public boolean canUndo() { return position > 0; }
+    public boolean canRedo() { return position < total; }
+    public int getUndoCount() { return position; }
+    public int getRedoCount() { return total - position; }
+    public long getMemoryBudget() { return memoryBudget; }
+
+    // Estimate, counting every keyframe as full even though its move array grows on demand
+    public long getMemoryUsage() {
+        return segments.size() * segmentBytes;
+    }
+}
@@ -0,0 +1,162 @@
+package com.game2048;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+// Load generator for GameServer: every simulated player opens a game, plays random moves
+// through the HTTP API and deletes the game (unless asked to keep it, to measure idle
+// sessions). All players run at once, one task each, on an executor of the client's own,
+// built like the server's (a virtual thread per task where the JVM has them).
+public final class GameLoadClient {
+    private static final String[] DIRECTIONS = {"left", "right", "up", "down"};
+
+    // Server URL without a trailing slash; request paths are appended to it, so a path prefix such
+    // as http://host/api is kept
+    private final String base;
+    private final int players;
+    private final int moves;
+    private final int size;
+    private final boolean keepGames;
+
+    public GameLoadClient(URI base, int players, int moves, int size, boolean keepGames) {
+        if (players < 1 || moves < 0) {
+            throw new IllegalArgumentException("Need at least one player and a non-negative move count");
+        }
+        this.base = base.toString().replaceAll("/+$", "");
+        this.players = players;
+        this.moves = moves;
+        this.size = size;
+        this.keepGames = keepGames;
+    }
+
+    // Returns the latency of every request in nanoseconds, sorted
+    public long[] run() throws InterruptedException {
+        ExecutorService executor = GameServer.newPerTaskExecutor();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(executor)
+                .build();
+        try {
+            SplittableRandom seeds = new SplittableRandom();
+            List<Future<long[]>> futures = new ArrayList<>(players);
+            for (int i = 0; i < players; i++) {
+                SplittableRandom random = seeds.split();
+                futures.add(executor.submit(() -> play(client, random)));
+            }
+            long[][] perPlayer = new long[players][];
+            int total = 0;
+            for (int i = 0; i < players; i++) {
+                perPlayer[i] = futures.get(i).get();
+                total += perPlayer[i].length;
+            }
+            long[] latencies = new long[total];
+            int offset = 0;
+            for (long[] player : perPlayer) {
+                System.arraycopy(player, 0, latencies, offset, player.length);
+                offset += player.length;
+            }
+            Arrays.sort(latencies);
+            return latencies;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load player failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long[] play(HttpClient client, SplittableRandom random) throws IOException, InterruptedException {
+        long[] latencies = new long[moves + 2];
+        int requests = 0;
+
+        long start = System.nanoTime();
+        String created = send(client, "POST", "/games?size=" + size);
+        latencies[requests++] = System.nanoTime() - start;
+        String id = created.substring(3, created.indexOf('\n'));
+
+        for (int i = 0; i < moves; i++) {
+            start = System.nanoTime();
+            String state = send(client, "POST", "/games/" + id + "/move?dir=" + DIRECTIONS[random.nextInt(4)]);
+            latencies[requests++] = System.nanoTime() - start;
+            if (!state.contains("status playing")) {
+                break;
+            }
+        }
+        if (!keepGames) {
+            start = System.nanoTime();
+            send(client, "DELETE", "/games/" + id);
+            latencies[requests++] = System.nanoTime() - start;
+        }
+        return Arrays.copyOf(latencies, requests);
+    }
+
+    // Any status is fine except server errors and unknown games
+    private String send(HttpClient client, String method, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 500 || response.statusCode() == 404 || response.statusCode() == 400) {
+            throw new IOException(method + " " + path + " failed with " + response.statusCode()
+                    + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    static long percentile(long[] sorted, double percentile) {
+        return sorted.length == 0 ? 0 : sorted[SimulationRunner.nearestRank(percentile, sorted.length)];
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: load [--url http://127.0.0.1:8048] [--players N] [--moves N] [--size N] [--keep]");
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String url = "http://127.0.0.1:8048";
+        int players = 1000;
+        int moves = 50;
+        int size = 4;
+        boolean keep = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--keep")) {
+                    keep = true;
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--url": url = value; i++; break;
+                    case "--players": players = Integer.parseInt(value); i++; break;
+                    case "--moves": moves = Integer.parseInt(value); i++; break;
+                    case "--size": size = Integer.parseInt(value); i++; break;
+                    default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            GameLoadClient load = new GameLoadClient(URI.create(url), players, moves, size, keep);
+            System.out.println("Running " + players + " players x " + moves + " moves against " + url);
+            long start = System.nanoTime();
+            long[] latencies = load.run();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Requests: %d in %.2f s (%.0f requests/s)%n",
+                    latencies.length, seconds, latencies.length / seconds);
+            System.out.printf("Latency: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                    percentile(latencies, 50) / 1e6, percentile(latencies, 99) / 1e6,
+                    percentile(latencies, 100) / 1e6);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid arguments: " + e.getMessage());
+            printUsage();
+        }
+    }
+}
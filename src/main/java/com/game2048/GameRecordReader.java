@@ -0,0 +1,242 @@
+package com.game2048;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Memory-mapped reader for archives written by GameRecordWriter. The file is mapped once at
+// open, in windows of at most 2 GB that end on game boundaries, and each game is read through
+// a slice of its window; the mapping lives off-heap, so archives far larger than the heap can
+// be scanned. Safe for concurrent readers.
+public final class GameRecordReader implements Closeable {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    // Largest region a single MappedByteBuffer can cover
+    static final long MAX_WINDOW_BYTES = Integer.MAX_VALUE;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer index;
+    private final long indexOffset;
+    private final int gameCount;
+    // Window w maps games windowFirstGames[w] up to the next window's first game, from file offset windowStarts[w]
+    private final MappedByteBuffer[] windows;
+    private final long[] windowStarts;
+    private final int[] windowFirstGames;
+
+    public GameRecordReader(Path path) throws IOException {
+        this(path, MAX_WINDOW_BYTES);
+    }
+
+    // maxWindowBytes bounds each mapped window; smaller values let tests cross window boundaries
+    GameRecordReader(Path path, long maxWindowBytes) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long fileSize = channel.size();
+            if (fileSize < GameRecordWriter.FILE_MAGIC.length + GameRecordWriter.TRAILER_BYTES) {
+                throw new IOException("Not a game record file: " + path);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, GameRecordWriter.FILE_MAGIC.length);
+            byte[] fileMagic = new byte[GameRecordWriter.FILE_MAGIC.length];
+            header.get(fileMagic);
+            if (!Arrays.equals(fileMagic, GameRecordWriter.FILE_MAGIC)) {
+                throw new IOException("Not a game record file: " + path);
+            }
+            ByteBuffer trailer = channel.map(FileChannel.MapMode.READ_ONLY,
+                    fileSize - GameRecordWriter.TRAILER_BYTES, GameRecordWriter.TRAILER_BYTES);
+            this.indexOffset = trailer.getLong();
+            this.gameCount = trailer.getInt();
+            byte[] magic = new byte[GameRecordWriter.INDEX_MAGIC.length];
+            trailer.get(magic);
+            if (!Arrays.equals(magic, GameRecordWriter.INDEX_MAGIC)) {
+                throw new IOException("Missing move index, file was not closed cleanly: " + path);
+            }
+            long indexBytes = (long) gameCount * GameRecordWriter.INDEX_ENTRY_BYTES;
+            if (gameCount < 0 || indexOffset < GameRecordWriter.FILE_MAGIC.length
+                    || indexOffset + indexBytes + GameRecordWriter.TRAILER_BYTES != fileSize) {
+                throw new IOException("Corrupt move index trailer in " + path + ": " + gameCount
+                        + " games at offset " + indexOffset + " in a file of " + fileSize + " bytes");
+            }
+            if (indexBytes > Integer.MAX_VALUE) {
+                throw new IOException("Move index too large to map: " + gameCount + " games");
+            }
+            this.index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, indexBytes);
+
+            List<MappedByteBuffer> mapped = new ArrayList<>();
+            List<Long> starts = new ArrayList<>();
+            List<Integer> firstGames = new ArrayList<>();
+            if (gameStart(0) != GameRecordWriter.FILE_MAGIC.length) {
+                throw new IOException("Corrupt move index in " + path + ": first game at " + gameStart(0));
+            }
+            // Greedy: extend the current window game by game until the next game would not fit
+            int first = 0;
+            for (int game = 0; game < gameCount; game++) {
+                long start = gameStart(game);
+                long end = gameStart(game + 1);
+                if (end <= start) {
+                    throw new IOException("Corrupt move index in " + path + ": game " + game + " ends at " + end
+                            + " but starts at " + start);
+                }
+                if (end - start > maxWindowBytes) {
+                    throw new IOException("Game " + game + " too large to map: " + (end - start) + " bytes");
+                }
+                if (end - gameStart(first) > maxWindowBytes) {
+                    mapWindow(first, game, mapped, starts, firstGames);
+                    first = game;
+                }
+            }
+            if (gameCount > 0) {
+                mapWindow(first, gameCount, mapped, starts, firstGames);
+            }
+            this.windows = mapped.toArray(new MappedByteBuffer[0]);
+            this.windowStarts = starts.stream().mapToLong(Long::longValue).toArray();
+            this.windowFirstGames = firstGames.stream().mapToInt(Integer::intValue).toArray();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getGameCount() { return gameCount; }
+
+    public int getMoveCount(int game) {
+        checkGame(game);
+        return index.getInt(game * GameRecordWriter.INDEX_ENTRY_BYTES + 8);
+    }
+
+    public long getSeed(int game) {
+        return gameBuffer(game).getLong(1);
+    }
+
+    public int getBoardSize(int game) {
+        return gameBuffer(game).get(0) & 0xFF;
+    }
+
+    // Random access to a single move without replaying the game
+    public Direction getMove(int game, int moveIndex) {
+        GameView view = new GameView(game);
+        if (moveIndex < 0 || moveIndex >= view.moveCount) {
+            throw new IllegalArgumentException("Invalid move index: " + moveIndex);
+        }
+        return DIRECTIONS[(int) (view.moveWord(moveIndex) & 3)];
+    }
+
+    // Board after the first moveIndex moves (0 = initial board)
+    public GameBoard replay(int game, int moveIndex) {
+        GameView view = new GameView(game);
+        if (moveIndex < 0 || moveIndex > view.moveCount) {
+            throw new IllegalArgumentException("Invalid move index: " + moveIndex);
+        }
+        GameBoard board = view.initialBoard();
+        for (int i = 0; i < moveIndex; i++) {
+            board = view.apply(board, i);
+        }
+        return board;
+    }
+
+    // Streams every position of a game, starting with the initial board
+    public void replayAll(int game, Consumer<GameBoard> positions) {
+        GameView view = new GameView(game);
+        GameBoard board = view.initialBoard();
+        positions.accept(board);
+        for (int i = 0; i < view.moveCount; i++) {
+            board = view.apply(board, i);
+            positions.accept(board);
+        }
+    }
+
+    private void checkGame(int game) {
+        if (game < 0 || game >= gameCount) {
+            throw new IllegalArgumentException("Invalid game: " + game);
+        }
+    }
+
+    int getWindowCount() { return windows.length; }
+
+    // File offset of a game's record; gameCount gives the end of the last one
+    private long gameStart(int game) {
+        return game < gameCount ? index.getLong(game * GameRecordWriter.INDEX_ENTRY_BYTES) : indexOffset;
+    }
+
+    // Maps games first (inclusive) to last (exclusive) as one window
+    private void mapWindow(int first, int last, List<MappedByteBuffer> mapped, List<Long> starts,
+                           List<Integer> firstGames) throws IOException {
+        long start = gameStart(first);
+        mapped.add(channel.map(FileChannel.MapMode.READ_ONLY, start, gameStart(last) - start));
+        starts.add(start);
+        firstGames.add(first);
+    }
+
+    // The game's bytes as a slice of its window; slices share the mapping and carry their own position
+    private ByteBuffer gameBuffer(int game) {
+        checkGame(game);
+        int window = Arrays.binarySearch(windowFirstGames, game);
+        if (window < 0) {
+            window = -window - 2;
+        }
+        long start = gameStart(game);
+        int offset = (int) (start - windowStarts[window]);
+        return windows[window].slice(offset, (int) (gameStart(game + 1) - start));
+    }
+
+    // Decoded header and mapped move bits of one game
+    private final class GameView {
+        private final ByteBuffer buffer;
+        private final int size;
+        private final long seed;
+        private final int score;
+        private final int[] initialValues;
+        private final int moveBits;
+        private final int movesOffset;
+        private final int moveCount;
+
+        GameView(int game) {
+            this.buffer = gameBuffer(game);
+            this.moveCount = getMoveCount(game);
+            this.size = buffer.get() & 0xFF;
+            this.seed = buffer.getLong();
+            this.score = buffer.getInt();
+            this.initialValues = new int[size * size];
+            int tiles = buffer.getShort() & 0xFFFF;
+            for (int i = 0; i < tiles; i++) {
+                int cell = buffer.getShort() & 0xFFFF;
+                initialValues[cell] = 1 << buffer.get();
+            }
+            this.moveBits = buffer.get() & 0xFF;
+            this.movesOffset = buffer.position();
+        }
+
+        GameBoard initialBoard() {
+            return GameBoard.fromValues(size, initialValues, score, seed);
+        }
+
+        long moveWord(int moveIndex) {
+            long bit = (long) moveIndex * moveBits;
+            long word = 0;
+            for (int read = 0; read < moveBits; ) {
+                int current = buffer.get(movesOffset + (int) (bit >>> 3)) & 0xFF;
+                int available = 8 - (int) (bit & 7);
+                int take = Math.min(available, moveBits - read);
+                word = (word << take) | ((current >>> (available - take)) & ((1 << take) - 1));
+                read += take;
+                bit += take;
+            }
+            return word;
+        }
+
+        GameBoard apply(GameBoard board, int moveIndex) {
+            return GameHistory.apply(board, (int) moveWord(moveIndex));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
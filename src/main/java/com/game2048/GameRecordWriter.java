@@ -0,0 +1,149 @@
+package com.game2048;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// Streams games into a compact binary archive.
+//
+// Layout (big-endian):
+//   file header  "2048REC1"
+//   per game     size:u8, seed:i64, score:i32, tileCount:u16, tileCount x (cell:u16, exponent:u8),
+//                moveBits:u8, then moveCount bit-packed moves of moveBits bits each, padded to a byte
+//   move index   gameCount x (gameOffset:i64, moveCount:i32)
+//   trailer      indexOffset:i64, gameCount:i32, "2048IDX1"
+//
+// A move is direction ordinal (2 bits), a 4-spawn flag (1 bit) and spawn cell + 1 (0 = no spawn),
+// so a 4x4 move takes one byte. The trailer lets GameRecordReader find any game without a scan.
+public final class GameRecordWriter implements Closeable {
+    static final byte[] FILE_MAGIC = "2048REC1".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] INDEX_MAGIC = "2048IDX1".getBytes(StandardCharsets.US_ASCII);
+    static final int INDEX_ENTRY_BYTES = 12;
+    static final int TRAILER_BYTES = 20;
+
+    private final DataOutputStream out;
+    private long offset;
+
+    private long[] gameOffsets = new long[1024];
+    private int[] moveCounts = new int[1024];
+    private int gameCount;
+
+    // Current game
+    private boolean inGame;
+    private int cellCount;
+    private int moveBits;
+    private int moveCount;
+    private long bitBuffer;
+    private int bitCount;
+
+    public GameRecordWriter(Path path) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+        out.write(FILE_MAGIC);
+        offset = FILE_MAGIC.length;
+    }
+
+    // Starts a game from its initial board; seed is stored for reference only, replay uses the recorded spawns
+    public void beginGame(GameBoard initial, long seed) throws IOException {
+        if (inGame) {
+            throw new IllegalStateException("Previous game has not been ended");
+        }
+        int size = initial.getSize();
+        cellCount = size * size;
+        moveBits = 3 + (32 - Integer.numberOfLeadingZeros(cellCount));
+        moveCount = 0;
+        inGame = true;
+
+        if (gameCount == gameOffsets.length) {
+            gameOffsets = Arrays.copyOf(gameOffsets, gameCount * 2);
+            moveCounts = Arrays.copyOf(moveCounts, gameCount * 2);
+        }
+        gameOffsets[gameCount] = offset;
+
+        int tiles = cellCount - initial.getEmptyCount();
+        out.writeByte(size);
+        out.writeLong(seed);
+        out.writeInt(initial.getScore());
+        out.writeShort(tiles);
+        for (int cell = 0; cell < cellCount; cell++) {
+            int value = initial.getValue(cell / size, cell % size);
+            if (value != 0) {
+                out.writeShort(cell);
+                out.writeByte(Integer.numberOfTrailingZeros(value));
+            }
+        }
+        out.writeByte(moveBits);
+        offset += 1 + 8 + 4 + 2 + 3L * tiles + 1;
+    }
+
+    // Records a move together with the spawn that followed it, as reported by the resulting board.
+    // Only moves that changed the board belong in a record.
+    public void recordMove(Direction direction, GameBoard after) throws IOException {
+        int spawn = after.getLastSpawnIndex();
+        int value = spawn < 0 ? 0 : after.getValue(spawn / after.getSize(), spawn % after.getSize());
+        recordMove(direction, spawn, value);
+    }
+
+    // spawnCell is the row-major cell index of the new tile, or -1 when nothing spawned
+    public void recordMove(Direction direction, int spawnCell, int spawnValue) throws IOException {
+        if (!inGame) {
+            throw new IllegalStateException("No game in progress");
+        }
+        if (spawnCell >= cellCount || (spawnCell >= 0 && spawnValue != 2 && spawnValue != 4)) {
+            throw new IllegalArgumentException("Invalid spawn: " + spawnValue + " at " + spawnCell);
+        }
+        long word = direction.ordinal()
+                | (spawnValue == 4 ? 1 << 2 : 0)
+                | (long) (spawnCell + 1) << 3;
+        writeBits(word, moveBits);
+        moveCount++;
+    }
+
+    public void endGame() throws IOException {
+        if (!inGame) {
+            throw new IllegalStateException("No game in progress");
+        }
+        if (bitCount > 0) {
+            writeBits(0, 8 - bitCount);
+        }
+        moveCounts[gameCount++] = moveCount;
+        inGame = false;
+    }
+
+    private void writeBits(long value, int bits) throws IOException {
+        bitBuffer = (bitBuffer << bits) | (value & ((1L << bits) - 1));
+        bitCount += bits;
+        while (bitCount >= 8) {
+            bitCount -= 8;
+            out.writeByte((int) (bitBuffer >>> bitCount));
+            offset++;
+        }
+        bitBuffer &= (1L << bitCount) - 1;
+    }
+
+    public int getGameCount() { return gameCount; }
+
+    // Ends any open game, then appends the move index and trailer
+    @Override
+    public void close() throws IOException {
+        try {
+            if (inGame) {
+                endGame();
+            }
+            long indexOffset = offset;
+            for (int i = 0; i < gameCount; i++) {
+                out.writeLong(gameOffsets[i]);
+                out.writeInt(moveCounts[i]);
+            }
+            out.writeLong(indexOffset);
+            out.writeInt(gameCount);
+            out.write(INDEX_MAGIC);
+        } finally {
+            out.close();
+        }
+    }
+}
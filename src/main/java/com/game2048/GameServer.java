@@ -0,0 +1,269 @@
+package com.game2048;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// One hosted game: its undo/redo history, which holds the current board.
+// Requests on the same session are serialized on the session.
+class GameSession {
+    private final long id;
+    private final GameHistory history;
+    private int moves;
+
+    public GameSession(long id, GameBoard board, long historyBudget) {
+        this.id = id;
+        this.history = new GameHistory(board, historyBudget);
+    }
+
+    // Returns false if the direction does not change the board
+    public synchronized boolean move(Direction direction) {
+        GameBoard before = history.current();
+        if (history.move(direction) == before) {
+            return false;
+        }
+        moves++;
+        return true;
+    }
+
+    public synchronized boolean undo() {
+        if (!history.undo()) {
+            return false;
+        }
+        moves--;
+        return true;
+    }
+
+    public synchronized boolean redo() {
+        if (!history.redo()) {
+            return false;
+        }
+        moves++;
+        return true;
+    }
+
+    public synchronized String describe() {
+        GameBoard board = history.current();
+        String status = board.isWon() ? "won" : board.isGameOver() ? "over" : "playing";
+        return "id " + id + "\nscore " + board.getScore() + "\nmoves " + moves + "\nstatus " + status
+                + "\n" + board + "\n";
+    }
+
+    public long getId() { return id; }
+}
+
+// Headless game service over HTTP, one request per exchange, plain-text replies:
+//   POST   /games?size=N[&seed=S]      new game, replies with its state (first line "id <id>")
+//   GET    /games/<id>                 current state
+//   POST   /games/<id>/move?dir=left   move left|right|up|down, 409 if nothing moved
+//   POST   /games/<id>/undo            take back the last move, 409 if there is none
+//   POST   /games/<id>/redo            play an undone move again, 409 if there is none
+//   DELETE /games/<id>                 end the session
+//   GET    /stats                      number of live sessions
+// Each exchange runs on its own virtual thread where the JVM has them (Java 21+), else on a
+// cached platform thread pool. Sessions live in a ConcurrentHashMap, so lookups never block.
+public final class GameServer implements AutoCloseable {
+    private static final int BACKLOG = 4096;
+    private static final String PREFIX = "/games";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final int maxSize;
+    private final long historyBudget;
+
+    // historyBudget caps each session's undo history in bytes (see GameHistory)
+    public GameServer(InetSocketAddress address, int maxSize, long historyBudget) throws IOException {
+        if (maxSize < 2) {
+            throw new IllegalArgumentException("Maximum board size must be at least 2: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.historyBudget = historyBudget;
+        this.executor = newPerTaskExecutor();
+        this.server = HttpServer.create(address, BACKLOG);
+        server.setExecutor(executor);
+        server.createContext(PREFIX, this::handleGames);
+        server.createContext("/stats", exchange -> reply(exchange, 200, "sessions " + sessions.size() + "\n"));
+    }
+
+    // The JDK server drops keep-alive connections beyond 200 idle ones by default, which resets
+    // clients holding thousands of sessions. The setting is a JVM-wide property read once, when
+    // the first server is created, so main raises it unless given on the command line; code that
+    // embeds the server can pass -Dsun.net.httpserver.maxIdleConnections=N instead.
+    private static void raiseIdleConnectionLimit() {
+        if (System.getProperty("sun.net.httpserver.maxIdleConnections") == null) {
+            System.setProperty("sun.net.httpserver.maxIdleConnections", "100000");
+        }
+    }
+
+    // Virtual thread per task when available; looked up reflectively so the build stays on Java 17
+    static ExecutorService newPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() { return server.getAddress().getPort(); }
+    public int getSessionCount() { return sessions.size(); }
+
+    private void handleGames(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            URI uri = exchange.getRequestURI();
+            // The context also matches paths that merely start with the prefix, such as /gamesfoo
+            if (!uri.getPath().equals(PREFIX) && !uri.getPath().startsWith(PREFIX + "/")) {
+                reply(exchange, 404, "Unknown request: " + method + " " + uri.getPath() + "\n");
+                return;
+            }
+            String[] path = uri.getPath().substring(PREFIX.length()).split("/");
+            Map<String, String> query = parseQuery(uri.getRawQuery());
+
+            if (path.length <= 1) {
+                if (!method.equals("POST")) {
+                    reply(exchange, 405, "Use POST to create a game\n");
+                    return;
+                }
+                int size = Integer.parseInt(query.getOrDefault("size", "4"));
+                if (size < 2 || size > maxSize) {
+                    throw new IllegalArgumentException("Board size must be between 2 and " + maxSize + ": " + size);
+                }
+                String seed = query.get("seed");
+                GameBoard board = seed == null
+                        ? GameBoard.createInitialBoard(size)
+                        : GameBoard.createInitialBoard(size, Long.parseLong(seed));
+                GameSession session = new GameSession(nextId.getAndIncrement(), board, historyBudget);
+                sessions.put(session.getId(), session);
+                reply(exchange, 201, session.describe());
+                return;
+            }
+
+            GameSession session = findSession(path[1]);
+            if (session == null) {
+                reply(exchange, 404, "No such game: " + path[1] + "\n");
+                return;
+            }
+            String action = path.length > 2 ? path[2] : "";
+            switch (method + " " + action) {
+                case "GET ":
+                    reply(exchange, 200, session.describe());
+                    break;
+                case "DELETE ":
+                    sessions.remove(session.getId());
+                    reply(exchange, 200, "deleted " + session.getId() + "\n");
+                    break;
+                case "POST move": {
+                    String dir = query.get("dir");
+                    if (dir == null) {
+                        throw new IllegalArgumentException("Missing dir");
+                    }
+                    boolean moved = session.move(Direction.valueOf(dir.toUpperCase(Locale.ROOT)));
+                    reply(exchange, moved ? 200 : 409, session.describe());
+                    break;
+                }
+                case "POST undo":
+                    reply(exchange, session.undo() ? 200 : 409, session.describe());
+                    break;
+                case "POST redo":
+                    reply(exchange, session.redo() ? 200 : 409, session.describe());
+                    break;
+                default:
+                    reply(exchange, 404, "Unknown request: " + method + " " + uri.getPath() + "\n");
+            }
+        } catch (IllegalArgumentException e) {
+            reply(exchange, 400, "Bad request: " + e.getMessage() + "\n");
+        }
+    }
+
+    // Session for an id path segment, or null when it is not a number or names no open game
+    private GameSession findSession(String id) {
+        try {
+            return sessions.get(Long.parseLong(id));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                parameters.put(pair.substring(0, equals), pair.substring(equals + 1));
+            }
+        }
+        return parameters;
+    }
+
+    private static void reply(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Stops accepting requests, waiting up to a second for running exchanges
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdownNow();
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: server [--port N] [--host ADDRESS] [--max-size N] [--history-bytes N]");
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = 8048;
+        String host = "127.0.0.1";
+        int maxSize = GameGUI.MAX_SIZE;
+        long historyBudget = 64 * 1024;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--port": port = Integer.parseInt(value); i++; break;
+                    case "--host": host = value; i++; break;
+                    case "--max-size": maxSize = Integer.parseInt(value); i++; break;
+                    case "--history-bytes": historyBudget = Long.parseLong(value); i++; break;
+                    default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid arguments: " + e.getMessage());
+            printUsage();
+            return;
+        }
+        raiseIdleConnectionLimit();
+        GameServer gameServer = new GameServer(new InetSocketAddress(host, port), maxSize, historyBudget);
+        gameServer.start();
+        System.out.println("Serving games on http://" + host + ":" + gameServer.getPort() + PREFIX);
+    }
+}
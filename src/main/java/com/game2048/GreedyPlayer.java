@@ -0,0 +1,23 @@
+package com.game2048;
+
+import java.util.Optional;
+
+// Plays the direction with the highest immediate score gain
+public final class GreedyPlayer implements AiPlayer {
+    @Override
+    public Optional<Direction> chooseMove(GameBoard board) {
+        Direction best = null;
+        int bestScore = -1;
+        for (Direction direction : Direction.values()) {
+            if (!board.canMove(direction)) {
+                continue;
+            }
+            GameBoard next = board.slide(direction);
+            if (next.getScore() > bestScore) {
+                bestScore = next.getScore();
+                best = direction;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+}
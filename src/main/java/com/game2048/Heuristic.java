@@ -0,0 +1,111 @@
+package com.game2048;
+
+// Built-in terms of WeightedEvaluator. Each one scores a single row or column of exponents
+// (0 = empty, n = 2^n) and a board's score is the sum over all its rows and columns, which is
+// what lets 4x4 boards be scored from per-row tables. Penalties are negative, so every term
+// is better when higher and takes a positive weight. Scores do not depend on the direction a
+// line is read in, so board scores are the same for all rotations and reflections.
+public enum Heuristic {
+    // Free cells
+    EMPTY {
+        @Override
+        double score(int[] line, int length) {
+            int empty = 0;
+            for (int i = 0; i < length; i++) {
+                if (line[i] == 0) {
+                    empty++;
+                }
+            }
+            return empty;
+        }
+    },
+    // Merges a slide along the line would make
+    MERGES {
+        @Override
+        double score(int[] line, int length) {
+            int merges = 0;
+            int pending = 0;
+            for (int i = 0; i < length; i++) {
+                int exponent = line[i];
+                if (exponent == 0) {
+                    continue;
+                }
+                if (exponent == pending) {
+                    merges++;
+                    pending = 0;
+                } else {
+                    pending = exponent;
+                }
+            }
+            return merges;
+        }
+    },
+    // Penalty for tiles that rise and then fall again (or the reverse), weighted towards large
+    // tiles; a line sorted in either direction scores 0
+    MONOTONICITY {
+        @Override
+        double score(int[] line, int length) {
+            double increasing = 0;
+            double decreasing = 0;
+            for (int i = 1; i < length; i++) {
+                double previous = power(line[i - 1], 4);
+                double current = power(line[i], 4);
+                if (previous > current) {
+                    decreasing += previous - current;
+                } else {
+                    increasing += current - previous;
+                }
+            }
+            return -Math.min(increasing, decreasing);
+        }
+    },
+    // Penalty for exponent differences between neighbouring tiles, skipping empty cells
+    SMOOTHNESS {
+        @Override
+        double score(int[] line, int length) {
+            int penalty = 0;
+            int previous = 0;
+            for (int i = 0; i < length; i++) {
+                int exponent = line[i];
+                if (exponent == 0) {
+                    continue;
+                }
+                if (previous != 0) {
+                    penalty += Math.abs(exponent - previous);
+                }
+                previous = exponent;
+            }
+            return -penalty;
+        }
+    },
+    // Penalty growing faster than the tile values, so fewer and larger tiles are preferred
+    TILE_MASS {
+        @Override
+        double score(int[] line, int length) {
+            double mass = 0;
+            for (int i = 0; i < length; i++) {
+                mass += power(line[i], 3.5);
+            }
+            return -mass;
+        }
+    },
+    // Exponent of the line's largest tile when it sits at either end; summed over rows and
+    // columns, a largest tile in a corner counts twice
+    CORNER {
+        @Override
+        double score(int[] line, int length) {
+            int max = 0;
+            for (int i = 0; i < length; i++) {
+                max = Math.max(max, line[i]);
+            }
+            return line[0] == max || line[length - 1] == max ? max : 0;
+        }
+    };
+
+    // Scores the first length exponents of line
+    abstract double score(int[] line, int length);
+
+    private static double power(int exponent, double power) {
+        return Math.pow(exponent, power);
+    }
+}
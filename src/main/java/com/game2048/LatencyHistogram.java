@@ -0,0 +1,118 @@
+package com.game2048;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Call counter and sampled latency histogram for one operation, safe to record from any thread.
+// Buckets are log-linear as in HdrHistogram: values below 32 ns are exact, larger ones fall into
+// 16 buckets per power of two, so every percentile is within about 6% of the true value and
+// the whole range of a long fits in 960 counters. Only one call in SAMPLE_RATE is timed, which
+// keeps System.nanoTime off most calls; every call is counted.
+final class LatencyHistogram implements LatencyHistogramMBean {
+    static final long NOT_SAMPLED = Long.MIN_VALUE;
+    static final int SAMPLE_RATE = 16;
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    // Start time of a sampled call, or NOT_SAMPLED; pass the result to stop
+    long start() {
+        return (ThreadLocalRandom.current().nextInt() & (SAMPLE_RATE - 1)) == 0 ? System.nanoTime() : NOT_SAMPLED;
+    }
+
+    void stop(long start) {
+        calls.increment();
+        if (start != NOT_SAMPLED) {
+            record(System.nanoTime() - start);
+        }
+    }
+
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucket(value));
+        samples.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    static int bucket(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    // Largest value that falls into the bucket
+    static long highestValue(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = (bucket & (SUB_BUCKETS - 1)) + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    // Latency at or below which the given percentage (0-100) of sampled calls completed
+    long getValueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValue(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    String getName() { return name; }
+
+    @Override public long getCount() { return calls.sum(); }
+    @Override public long getSampleCount() { return samples.sum(); }
+    @Override public long getP50Nanos() { return getValueAtPercentile(50); }
+    @Override public long getP99Nanos() { return getValueAtPercentile(99); }
+    @Override public long getP999Nanos() { return getValueAtPercentile(99.9); }
+    @Override public long getMaxNanos() { return maxNanos.get(); }
+
+    @Override
+    public double getMeanNanos() {
+        long sampled = samples.sum();
+        return sampled == 0 ? 0 : (double) totalNanos.sum() / sampled;
+    }
+
+    // Not atomic with respect to concurrent recording, which may leave a few stray counts
+    @Override
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        calls.reset();
+        samples.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+}
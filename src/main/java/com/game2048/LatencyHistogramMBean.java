@@ -0,0 +1,13 @@
+package com.game2048;
+
+// JMX view of one instrumented operation (see EngineMetrics); latencies in nanoseconds
+public interface LatencyHistogramMBean {
+    long getCount();
+    long getSampleCount();
+    double getMeanNanos();
+    long getP50Nanos();
+    long getP99Nanos();
+    long getP999Nanos();
+    long getMaxNanos();
+    void reset();
+}
@@ -0,0 +1,89 @@
+package com.game2048;
+
+// Slide-and-merge kernel shared by the array-backed boards
+final class LineSlider {
+    private LineSlider() {
+    }
+
+    // Slides the line of tile values starting at start (stepping by step) towards start, in place.
+    // Returns the merge score, or -1 if the line did not change.
+    // The write position never passes the read position, so no scratch buffer is needed.
+    static int slide(int[] cells, int start, int step, int length) {
+        boolean changed = false;
+        int score = 0;
+        int write = start;
+        int pending = 0;
+        for (int i = 0, read = start; i < length; i++, read += step) {
+            int value = cells[read];
+            if (value == 0) {
+                continue;
+            }
+            if (pending == value) {
+                changed |= put(cells, write, value * 2);
+                score += value * 2;
+                write += step;
+                pending = 0;
+            } else {
+                if (pending != 0) {
+                    changed |= put(cells, write, pending);
+                    write += step;
+                }
+                pending = value;
+            }
+        }
+        if (pending != 0) {
+            changed |= put(cells, write, pending);
+            write += step;
+        }
+        for (int end = start + length * step; write != end; write += step) {
+            changed |= put(cells, write, 0);
+        }
+        return changed ? score : -1;
+    }
+
+    // Walks the same line the way slide would, without changing it, and appends one entry per tile:
+    // its cell, the cell it ends up in and whether it merged there. Returns the new entry count.
+    static int trace(int[] cells, int start, int step, int length,
+                     int[] sources, int[] destinations, boolean[] merged, int count) {
+        int write = start;
+        int pending = 0;
+        int pendingCell = -1;
+        for (int i = 0, read = start; i < length; i++, read += step) {
+            int value = cells[read];
+            if (value == 0) {
+                continue;
+            }
+            if (pending == value) {
+                sources[count] = pendingCell;
+                destinations[count] = write;
+                merged[count++] = true;
+                sources[count] = read;
+                destinations[count] = write;
+                merged[count++] = true;
+                write += step;
+                pending = 0;
+            } else {
+                if (pending != 0) {
+                    sources[count] = pendingCell;
+                    destinations[count] = write;
+                    merged[count++] = false;
+                    write += step;
+                }
+                pending = value;
+                pendingCell = read;
+            }
+        }
+        if (pending != 0) {
+            sources[count] = pendingCell;
+            destinations[count] = write;
+            merged[count++] = false;
+        }
+        return count;
+    }
+
+    private static boolean put(int[] cells, int cell, int value) {
+        boolean changed = cells[cell] != value;
+        cells[cell] = value;
+        return changed;
+    }
+}
@@ -1,8 +1,30 @@
 package com.game2048;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException, IOException {
+        // Headless batch simulation, e.g. "simulate --games 1000 --policy greedy"
+        if (args.length > 0 && args[0].equals("simulate")) {
+            SimulationRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // HTTP game service and its load generator, e.g. "server --port 8048", "load --players 1000"
+        if (args.length > 0 && args[0].equals("server")) {
+            GameServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("load")) {
+            GameLoadClient.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // Exact solver for small boards, e.g. "tablebase --size 3 --out 3x3.tb"
+        if (args.length > 0 && args[0].equals("tablebase")) {
+            TablebaseGenerator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         // Launch the GUI version
         GameGUI.main(args);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,191 @@
+package com.game2048;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+// Pure Monte Carlo policy: plays each legal direction, finishes the game K times with
+// random moves and picks the direction with the best mean final score.
+// Rollouts are split into one batch per worker; each worker thread reuses its own boards.
+public final class MonteCarloPlayer implements AiPlayer, AutoCloseable {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int rollouts;
+    private final int threads;
+    private final ExecutorService executor;
+    private final SplittableRandom seeds;
+    private final ThreadLocal<Scratch> scratch = new ThreadLocal<>();
+
+    private final LongAdder rolloutCount = new LongAdder();
+    private final LongAdder rolloutMoves = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+
+    // rollouts is K, the number of playouts per direction. With one thread the rollouts run on the
+    // calling thread; with more, they run on a pool of that many threads while the caller waits.
+    public MonteCarloPlayer(int rollouts, int threads, long seed) {
+        if (rollouts < 1) {
+            throw new IllegalArgumentException("Rollout count must be positive: " + rollouts);
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.rollouts = rollouts;
+        this.threads = threads;
+        this.executor = threads == 1 ? null : Executors.newFixedThreadPool(threads);
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    // Per-thread boards, reused across batches of the same size
+    private static final class Scratch {
+        final MutableBoard root;
+        final MutableBoard work;
+
+        Scratch(int size) {
+            this.root = new MutableBoard(size, 0);
+            this.work = new MutableBoard(size, 0);
+        }
+    }
+
+    @Override
+    public Optional<Direction> chooseMove(GameBoard board) {
+        long start = System.nanoTime();
+        List<Batch> batches = new ArrayList<>(threads);
+        synchronized (seeds) {
+            for (int i = 0; i < threads; i++) {
+                int count = rollouts / threads + (i < rollouts % threads ? 1 : 0);
+                if (count > 0) {
+                    batches.add(new Batch(board, count, seeds.split()));
+                }
+            }
+        }
+
+        // Sum of final scores per direction, or -1 where the direction does not change the board
+        long[] totals = new long[DIRECTIONS.length];
+        for (long[] batchTotals : runAll(batches)) {
+            for (int d = 0; d < totals.length; d++) {
+                totals[d] = batchTotals[d] < 0 ? -1 : totals[d] + batchTotals[d];
+            }
+        }
+        searchNanos.add(System.nanoTime() - start);
+
+        Direction best = null;
+        long bestTotal = -1;
+        for (int d = 0; d < totals.length; d++) {
+            if (totals[d] > bestTotal) {
+                bestTotal = totals[d];
+                best = DIRECTIONS[d];
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    private List<long[]> runAll(List<Batch> batches) {
+        List<long[]> results = new ArrayList<>(batches.size());
+        if (executor == null) {
+            for (Batch batch : batches) {
+                results.add(batch.call());
+            }
+            return results;
+        }
+        try {
+            for (Future<long[]> future : executor.invokeAll(batches)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running rollouts", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rollout batch failed", e.getCause());
+        }
+    }
+
+    // A slice of the rollouts for every direction, run on one thread
+    private final class Batch implements Callable<long[]> {
+        private final GameBoard board;
+        private final int count;
+        private final SplittableRandom random;
+
+        Batch(GameBoard board, int count, SplittableRandom random) {
+            this.board = board;
+            this.count = count;
+            this.random = random;
+        }
+
+        @Override
+        public long[] call() {
+            Scratch boards = scratch.get();
+            if (boards == null || boards.root.getSize() != board.getSize()) {
+                boards = new Scratch(board.getSize());
+                scratch.set(boards);
+            }
+            boards.root.load(board);
+
+            long[] totals = new long[DIRECTIONS.length];
+            long moves = 0;
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                MutableBoard work = boards.work;
+                work.copyFrom(boards.root);
+                if (!work.move(DIRECTIONS[d])) {
+                    totals[d] = -1;
+                    continue;
+                }
+                for (int i = 0; i < count; i++) {
+                    work.copyFrom(boards.root);
+                    work.move(DIRECTIONS[d]);
+                    work.spawn(random);
+                    moves += playOut(work, random);
+                    totals[d] += work.getScore();
+                }
+                rolloutCount.add(count);
+            }
+            rolloutMoves.add(moves);
+            return totals;
+        }
+    }
+
+    // Plays uniformly random legal moves, as RandomPlayer does, until the board is terminal;
+    // returns the number of moves played
+    static int playOut(MutableBoard board, SplittableRandom random) {
+        int moves = 0;
+        for (int legal = board.legalMoves(); legal != 0; legal = board.legalMoves()) {
+            // Pick the n-th set bit of the legal mask
+            int target = random.nextInt(Integer.bitCount(legal));
+            for (Direction direction : DIRECTIONS) {
+                if ((legal & direction.mask()) != 0 && target-- == 0) {
+                    board.move(direction);
+                    break;
+                }
+            }
+            board.spawn(random);
+            moves++;
+        }
+        return moves;
+    }
+
+    // Metrics since construction
+    public long getRolloutCount() { return rolloutCount.sum(); }
+    public long getRolloutMoveCount() { return rolloutMoves.sum(); }
+
+    // Rollouts per second of time spent in chooseMove, summed over calling threads
+    public double getRolloutsPerSecond() {
+        long nanos = searchNanos.sum();
+        return nanos == 0 ? 0 : rolloutCount.sum() / (nanos / 1e9);
+    }
+
+    public int getRolloutsPerMove() { return rollouts; }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
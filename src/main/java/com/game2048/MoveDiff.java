@@ -0,0 +1,75 @@
+package com.game2048;
+
+// What one move did to each tile: the cell every tile of the old board came from, the cell
+// it slid to and whether it merged there, plus the tile spawned afterwards. Stationary
+// tiles are included with equal source and destination. Cells are row-major indices.
+public final class MoveDiff {
+    private final GameBoard before;
+    private final GameBoard after;
+    private final Direction direction;
+    private final int[] sources;
+    private final int[] destinations;
+    private final boolean[] merged;
+    private final int tileCount;
+
+    private MoveDiff(GameBoard before, GameBoard after, Direction direction,
+                     int[] sources, int[] destinations, boolean[] merged, int tileCount) {
+        this.before = before;
+        this.after = after;
+        this.direction = direction;
+        this.sources = sources;
+        this.destinations = destinations;
+        this.merged = merged;
+        this.tileCount = tileCount;
+    }
+
+    // after must be the result of moving before in direction
+    static MoveDiff of(GameBoard before, Direction direction, GameBoard after) {
+        int size = before.getSize();
+        int[] cells = new int[size * size];
+        before.copyValues(cells);
+        int tiles = cells.length - before.getEmptyCount();
+        int[] sources = new int[tiles];
+        int[] destinations = new int[tiles];
+        boolean[] merged = new boolean[tiles];
+        int count = 0;
+        for (int index = 0; index < size; index++) {
+            int start;
+            int step;
+            switch (direction) {
+                case LEFT: start = index * size; step = 1; break;
+                case RIGHT: start = index * size + size - 1; step = -1; break;
+                case UP: start = index; step = size; break;
+                case DOWN: start = (size - 1) * size + index; step = -size; break;
+                default: throw new IllegalArgumentException("Invalid direction");
+            }
+            count = LineSlider.trace(cells, start, step, size, sources, destinations, merged, count);
+        }
+        return new MoveDiff(before, after, direction, sources, destinations, merged, count);
+    }
+
+    public GameBoard getBefore() { return before; }
+    public GameBoard getBoard() { return after; }
+    public Direction getDirection() { return direction; }
+    public boolean hasChanged() { return before != after; }
+
+    // Tiles of the old board, in no particular order
+    public int getTileCount() { return tileCount; }
+    public int getSource(int tile) { return sources[tile]; }
+    public int getDestination(int tile) { return destinations[tile]; }
+    public boolean isMerged(int tile) { return merged[tile]; }
+    public int getValue(int tile) {
+        int size = before.getSize();
+        return before.getValue(sources[tile] / size, sources[tile] % size);
+    }
+
+    // Cell of the tile spawned after the slide, or -1
+    public int getSpawnCell() {
+        return hasChanged() ? after.getLastSpawnIndex() : -1;
+    }
+
+    public int getSpawnValue() {
+        int cell = getSpawnCell();
+        return cell < 0 ? 0 : after.getValue(cell / after.getSize(), cell % after.getSize());
+    }
+}
@@ -0,0 +1,193 @@
+package com.game2048;
+
+import java.util.random.RandomGenerator;
+
+// Mutable board for rollouts: tile values in a flat row-major int[] updated in place.
+// Moves, spawns and undo reuse preallocated arrays and create no objects.
+// Not thread-safe; give each worker its own instance.
+public final class MutableBoard {
+    private final int size;
+    private final int[] cells;
+    private int score;
+
+    // Ring buffer of snapshots taken before each changing move, staged in previousCells
+    private final int[] previousCells;
+    private final int[] undoCells;
+    private final int[] undoScores;
+    private int undoTop;
+    private int undoCount;
+
+    public MutableBoard(int size, int undoDepth) {
+        if (size < 2) {
+            throw new IllegalArgumentException("Board size must be at least 2: " + size);
+        }
+        if (undoDepth < 0) {
+            throw new IllegalArgumentException("Undo depth must not be negative: " + undoDepth);
+        }
+        this.size = size;
+        this.cells = new int[size * size];
+        this.previousCells = new int[undoDepth == 0 ? 0 : size * size];
+        this.undoCells = new int[undoDepth * size * size];
+        this.undoScores = new int[undoDepth];
+    }
+
+    public static MutableBoard fromGameBoard(GameBoard board, int undoDepth) {
+        MutableBoard mutable = new MutableBoard(board.getSize(), undoDepth);
+        mutable.load(board);
+        return mutable;
+    }
+
+    // Replaces the contents with the given board and clears the undo history
+    public void load(GameBoard board) {
+        if (board.getSize() != size) {
+            throw new IllegalArgumentException("Expected a " + size + "x" + size + " board");
+        }
+        board.copyValues(cells);
+        score = board.getScore();
+        undoCount = 0;
+    }
+
+    // Copies another board of the same size and clears the undo history
+    public void copyFrom(MutableBoard other) {
+        if (other.size != size) {
+            throw new IllegalArgumentException("Expected a " + size + "x" + size + " board");
+        }
+        System.arraycopy(other.cells, 0, cells, 0, cells.length);
+        score = other.score;
+        undoCount = 0;
+    }
+
+    public GameBoard toGameBoard(RandomGenerator random) {
+        return GameBoard.fromValues(size, cells, score, random);
+    }
+
+    // Slides and merges in place; returns false and records nothing if the board did not change
+    public boolean move(Direction direction) {
+        int previousScore = score;
+        System.arraycopy(cells, 0, previousCells, 0, previousCells.length);
+        boolean changed = false;
+        for (int index = 0; index < size; index++) {
+            int start;
+            int step;
+            switch (direction) {
+                case LEFT: start = index * size; step = 1; break;
+                case RIGHT: start = index * size + size - 1; step = -1; break;
+                case UP: start = index; step = size; break;
+                case DOWN: start = (size - 1) * size + index; step = -size; break;
+                default: throw new IllegalArgumentException("Invalid direction");
+            }
+            int gained = LineSlider.slide(cells, start, step, size);
+            if (gained >= 0) {
+                changed = true;
+                score += gained;
+            }
+        }
+        if (changed) {
+            pushUndo(previousScore);
+        }
+        return changed;
+    }
+
+    // Places a 2 (90%) or 4 (10%) in a random empty cell, with the same draws as BitBoard.spawnRandomTile
+    public boolean spawn(RandomGenerator random) {
+        int empty = countEmpty();
+        if (empty == 0) {
+            return false;
+        }
+        int target = random.nextInt(empty);
+        int value = random.nextDouble() < 0.9 ? 2 : 4;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] == 0 && target-- == 0) {
+                cells[cell] = value;
+                return true;
+            }
+        }
+        throw new IllegalStateException("Empty cell count out of sync");
+    }
+
+    // Restores the board as it was before the last changing move, including any spawns since
+    public boolean undo() {
+        if (undoCount == 0) {
+            return false;
+        }
+        undoTop = (undoTop + undoScores.length - 1) % undoScores.length;
+        undoCount--;
+        System.arraycopy(undoCells, undoTop * cells.length, cells, 0, cells.length);
+        score = undoScores[undoTop];
+        return true;
+    }
+
+    // Commits the staged snapshot, overwriting the oldest one once the buffer is full
+    private void pushUndo(int previousScore) {
+        if (undoScores.length == 0) {
+            return;
+        }
+        System.arraycopy(previousCells, 0, undoCells, undoTop * cells.length, cells.length);
+        undoScores[undoTop] = previousScore;
+        undoTop = (undoTop + 1) % undoScores.length;
+        undoCount = Math.min(undoCount + 1, undoScores.length);
+    }
+
+    public int countEmpty() {
+        int empty = 0;
+        for (int value : cells) {
+            if (value == 0) {
+                empty++;
+            }
+        }
+        return empty;
+    }
+
+    public int getMaxTile() {
+        int max = 0;
+        for (int value : cells) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    public boolean hasWon() {
+        return getMaxTile() >= 2048;
+    }
+
+    public boolean isTerminalState() {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int current = cells[row * size + col];
+                if (current == 0
+                        || (col < size - 1 && current == cells[row * size + col + 1])
+                        || (row < size - 1 && current == cells[(row + 1) * size + col])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Directions that would change the board, as a bitmask of Direction.mask(); 0 when terminal
+    public int legalMoves() {
+        int all = (1 << Direction.values().length) - 1;
+        int mask = 0;
+        for (int i = 0; i < size && mask != all; i++) {
+            for (int j = 0; j < size - 1; j++) {
+                mask |= GameBoard.pairMoves(cells[i * size + j], cells[i * size + j + 1],
+                        Direction.LEFT, Direction.RIGHT);
+                mask |= GameBoard.pairMoves(cells[j * size + i], cells[(j + 1) * size + i],
+                        Direction.UP, Direction.DOWN);
+            }
+        }
+        return mask;
+    }
+
+    public int getValue(int row, int col) {
+        if (row < 0 || row >= size || col < 0 || col >= size) {
+            throw new IllegalArgumentException("Invalid position: (" + row + ", " + col + ")");
+        }
+        return cells[row * size + col];
+    }
+
+    // Getters
+    public int getSize() { return size; }
+    public int getScore() { return score; }
+    public int getUndoCount() { return undoCount; }
+}
@@ -0,0 +1,228 @@
+package com.game2048;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Expectimax search that splits the top of the tree (each direction, then each
+// spawn cell and value) into fork-join tasks. All workers share one transposition
+// table, which tolerates concurrent writers by design, and one deadline.
+public final class ParallelExpectimaxSolver implements AiPlayer, AutoCloseable {
+    // 2^22 entries of 16 bytes: 64 MB, shared by all workers of one solver
+    static final int DEFAULT_TABLE_BITS = 22;
+    // Below this many empty cells the root is split one move deeper to keep all workers busy
+    private static final int DEEP_SPLIT_EMPTY_CELLS = 4;
+
+    private final ForkJoinPool pool;
+    private final int maxDepth;
+    private final long timeBudgetNanos;
+    private final float probabilityCutoff;
+    private final BoardEvaluator evaluator;
+    private final TranspositionTable table;
+
+    // parallelism caps the number of worker threads so several games can share a machine
+    public ParallelExpectimaxSolver(int maxDepth, Duration timeBudget, int parallelism) {
+        this(maxDepth, timeBudget, parallelism, WeightedEvaluator.defaults());
+    }
+
+    // evaluator scores the leaves and must be symmetric (see BoardEvaluator)
+    public ParallelExpectimaxSolver(int maxDepth, Duration timeBudget, int parallelism, BoardEvaluator evaluator) {
+        this(maxDepth, timeBudget, parallelism, evaluator, DEFAULT_TABLE_BITS);
+    }
+
+    // tableBits sizes the transposition table at 16 << tableBits bytes, from 1 to 30
+    public ParallelExpectimaxSolver(int maxDepth, Duration timeBudget, int parallelism, BoardEvaluator evaluator,
+                                    int tableBits) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Depth must not be negative: " + maxDepth);
+        }
+        if (timeBudget.isNegative()) {
+            throw new IllegalArgumentException("Time budget must not be negative: " + timeBudget);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.table = new TranspositionTable(tableBits);
+        this.pool = new ForkJoinPool(parallelism);
+        this.maxDepth = maxDepth;
+        this.timeBudgetNanos = timeBudget.toNanos();
+        this.probabilityCutoff = ExpectimaxSolver.PROBABILITY_CUTOFF;
+        this.evaluator = evaluator;
+    }
+
+    public static ParallelExpectimaxSolver withParallelism(int parallelism) {
+        return new ParallelExpectimaxSolver(ExpectimaxSolver.ADAPTIVE_DEPTH, Duration.ZERO, parallelism);
+    }
+
+    @Override
+    public Optional<Direction> chooseMove(GameBoard board) {
+        return Optional.ofNullable(bestMove(BitBoard.fromGameBoard(board)));
+    }
+
+    // Returns null when no direction changes the board
+    public Direction bestMove(long board) {
+        ExpectimaxSolver.Deadline deadline =
+                new ExpectimaxSolver.Deadline(System.nanoTime() + timeBudgetNanos, timeBudgetNanos > 0);
+        int depthLimit = ExpectimaxSolver.depthLimit(maxDepth, board);
+        int splitLevels = BitBoard.countEmpty(board) < DEEP_SPLIT_EMPTY_CELLS ? 2 : 1;
+
+        Direction best = pool.invoke(new RootTask(board, 1, ExpectimaxSolver.Deadline.NONE, splitLevels));
+        for (int depth = 2; depth <= depthLimit && best != null; depth++) {
+            try {
+                best = pool.invoke(new RootTask(board, depth, deadline, splitLevels));
+            } catch (ExpectimaxSolver.SearchTimeout timeout) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private final class RootTask extends RecursiveTask<Direction> {
+        private static final long serialVersionUID = 1L;
+
+        private final long board;
+        private final int depth;
+        private final ExpectimaxSolver.Deadline deadline;
+        private final int splitLevels;
+
+        RootTask(long board, int depth, ExpectimaxSolver.Deadline deadline, int splitLevels) {
+            this.board = board;
+            this.depth = depth;
+            this.deadline = deadline;
+            this.splitLevels = splitLevels;
+        }
+
+        @Override
+        protected Direction compute() {
+            List<ChanceTask> tasks = new ArrayList<>();
+            List<Direction> directions = new ArrayList<>();
+            for (Direction direction : Direction.values()) {
+                long moved = BitBoard.slide(board, direction);
+                if (moved != board) {
+                    tasks.add(new ChanceTask(moved, depth, 1f, deadline, splitLevels));
+                    directions.add(direction);
+                }
+            }
+            invokeAll(tasks);
+
+            Direction best = null;
+            float bestValue = Float.NEGATIVE_INFINITY;
+            for (int i = 0; i < tasks.size(); i++) {
+                float value = tasks.get(i).join();
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = directions.get(i);
+                }
+            }
+            return best;
+        }
+    }
+
+    // Averages over every spawn; forks one task per cell and value while split levels remain
+    private final class ChanceTask extends RecursiveTask<Float> {
+        private static final long serialVersionUID = 1L;
+
+        private final long board;
+        private final int depth;
+        private final float probability;
+        private final ExpectimaxSolver.Deadline deadline;
+        private final int splitLevels;
+
+        ChanceTask(long board, int depth, float probability, ExpectimaxSolver.Deadline deadline, int splitLevels) {
+            this.board = board;
+            this.depth = depth;
+            this.probability = probability;
+            this.deadline = deadline;
+            this.splitLevels = splitLevels;
+        }
+
+        @Override
+        protected Float compute() {
+            if (splitLevels == 0 || depth <= 0 || probability < probabilityCutoff) {
+                return search().chanceNode(board, depth, probability);
+            }
+            // Same canonical key as the sequential search, so both fill the table for all 8 symmetries
+            long key = BitBoard.canonical(board);
+            long cached = table.lookup(key, depth);
+            if (cached >= 0) {
+                return Float.intBitsToFloat((int) cached);
+            }
+            deadline.check();
+
+            // Each cell's 2 and 4 spawns side by side, all forked at once
+            long empty = BitBoard.emptyMask(board);
+            int count = Long.bitCount(empty);
+            List<MaxTask> spawns = new ArrayList<>(2 * count);
+            while (empty != 0) {
+                long cell = Long.lowestOneBit(empty);
+                empty ^= cell;
+                spawns.add(new MaxTask(board | cell, depth - 1, probability * 0.9f / count, this));
+                spawns.add(new MaxTask(board | (cell << 1), depth - 1, probability * 0.1f / count, this));
+            }
+            invokeAll(spawns);
+
+            float sum = 0f;
+            for (int i = 0; i < spawns.size(); i += 2) {
+                sum += 0.9f * spawns.get(i).join() + 0.1f * spawns.get(i + 1).join();
+            }
+            float value = sum / count;
+            table.store(key, depth, value);
+            return value;
+        }
+
+        ExpectimaxSolver.Search search() {
+            return new ExpectimaxSolver.Search(table, evaluator, probabilityCutoff, deadline);
+        }
+    }
+
+    // Picks the best direction after a spawn, splitting again only when levels remain below it
+    private final class MaxTask extends RecursiveTask<Float> {
+        private static final long serialVersionUID = 1L;
+
+        private final long board;
+        private final int depth;
+        private final float probability;
+        private final ChanceTask parent;
+
+        MaxTask(long board, int depth, float probability, ChanceTask parent) {
+            this.board = board;
+            this.depth = depth;
+            this.probability = probability;
+            this.parent = parent;
+        }
+
+        @Override
+        protected Float compute() {
+            if (parent.splitLevels == 1) {
+                return parent.search().maxNode(board, depth, probability);
+            }
+            List<ChanceTask> tasks = new ArrayList<>();
+            for (Direction direction : Direction.values()) {
+                long moved = BitBoard.slide(board, direction);
+                if (moved != board) {
+                    tasks.add(new ChanceTask(moved, depth, probability,
+                            parent.deadline, parent.splitLevels - 1));
+                }
+            }
+            invokeAll(tasks);
+
+            float best = 0f;
+            for (ChanceTask task : tasks) {
+                best = Math.max(best, task.join());
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.game2048;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.OptionalLong;
+
+// Off-heap hash table from board positions to a caller-defined long (an evaluation,
+// a visit count, a solved result). Records live in direct or memory-mapped buffers
+// split into chunks, so the table can grow past 2 GB without touching the GC heap,
+// and a file-backed store is reopened just by mapping the file again.
+//
+// File layout (big-endian):
+//   header   "2048POS1", boardSize:i32, recordBytes:i32, slotBits:i32, count:i64, padded to 64 bytes
+//   slots    2^slotBits x (hash:i64, value:i64, exponent:u8 per cell, padded to 8 bytes)
+//
+// Positions are stored in canonical form (see GameBoard.canonical), so all rotations and
+// reflections of a board share one record and iteration yields the canonical boards.
+// A zero hash marks a free slot. Slots are probed linearly from the board hash and the
+// stored exponents are compared on a hash match. Capacity is fixed at creation.
+// Not thread-safe.
+public final class PositionStore implements Closeable {
+    static final byte[] MAGIC = "2048POS1".getBytes(StandardCharsets.US_ASCII);
+    static final int HEADER_BYTES = 64;
+    private static final int MAX_CHUNK_BYTES = 1 << 30;
+
+    private static final int COUNT_OFFSET = 20;
+    private static final int VALUE_OFFSET = 8;
+    private static final int CELLS_OFFSET = 16;
+
+    // Visits every stored position
+    @FunctionalInterface
+    public interface Visitor {
+        void accept(GameBoard board, long value);
+    }
+
+    private final int boardSize;
+    private final int recordBytes;
+    private final long slotMask;
+    private final long maxCount;
+    private final int chunkShift;
+    private final long chunkMask;
+    private final ByteBuffer header;
+    private final ByteBuffer[] chunks;
+    private long count;
+
+    // Reused to encode the board being looked up
+    private final int[] values;
+    private final byte[] exponents;
+
+    private PositionStore(int boardSize, int slotBits, ByteBuffer header, FileChannel channel) throws IOException {
+        int cells = boardSize * boardSize;
+        this.boardSize = boardSize;
+        this.recordBytes = recordBytes(boardSize);
+        long slots = 1L << slotBits;
+        this.slotMask = slots - 1;
+        this.maxCount = slots - (slots >>> 2);
+        this.chunkShift = Math.min(slotBits, 31 - Integer.numberOfLeadingZeros(MAX_CHUNK_BYTES / recordBytes));
+        this.chunkMask = (1L << chunkShift) - 1;
+        this.header = header;
+        this.chunks = new ByteBuffer[(int) (slots >>> chunkShift)];
+        int chunkBytes = recordBytes << chunkShift;
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = channel == null
+                    ? ByteBuffer.allocateDirect(chunkBytes)
+                    : channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + (long) i * chunkBytes, chunkBytes);
+        }
+        this.count = header.getLong(COUNT_OFFSET);
+        this.values = new int[cells];
+        this.exponents = new byte[cells];
+    }
+
+    // In-memory store for at least capacity positions, released when it is garbage collected
+    public static PositionStore allocate(int boardSize, long capacity) {
+        int slotBits = slotBits(boardSize, capacity);
+        try {
+            return new PositionStore(boardSize, slotBits, newHeader(boardSize, slotBits), null);
+        } catch (IOException e) {
+            throw new IllegalStateException("Direct buffers cannot fail with I/O", e);
+        }
+    }
+
+    // New file-backed store for at least capacity positions; replaces any existing file
+    public static PositionStore create(Path path, int boardSize, long capacity) throws IOException {
+        int slotBits = slotBits(boardSize, capacity);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.put(newHeader(boardSize, slotBits));
+            return new PositionStore(boardSize, slotBits, header, channel);
+        }
+    }
+
+    // Reopens a store written by create; positions are paged in from the file as they are touched
+    public static PositionStore open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Not a position store: " + path);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            byte[] magic = new byte[MAGIC.length];
+            header.get(0, magic);
+            int boardSize = header.getInt(8);
+            int slotBits = header.getInt(16);
+            if (!Arrays.equals(magic, MAGIC) || boardSize < 2 || boardSize > 16 || slotBits < 1 || slotBits > 40) {
+                throw new IOException("Not a position store: " + path);
+            }
+            int recordBytes = recordBytes(boardSize);
+            if (header.getInt(12) != recordBytes || channel.size() < HEADER_BYTES + ((long) recordBytes << slotBits)) {
+                throw new IOException("Truncated or incompatible position store: " + path);
+            }
+            return new PositionStore(boardSize, slotBits, header, channel);
+        }
+    }
+
+    private static ByteBuffer newHeader(int boardSize, int slotBits) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.put(MAGIC);
+        header.putInt(boardSize);
+        header.putInt(recordBytes(boardSize));
+        header.putInt(slotBits);
+        header.putLong(0);
+        return header.flip();
+    }
+
+    private static int recordBytes(int boardSize) {
+        return (CELLS_OFFSET + boardSize * boardSize + 7) & ~7;
+    }
+
+    // Smallest power of two slot count that keeps the table at most 3/4 full
+    private static int slotBits(int boardSize, long capacity) {
+        if (boardSize < 2 || boardSize > 16) {
+            throw new IllegalArgumentException("Board size must be between 2 and 16: " + boardSize);
+        }
+        if (capacity < 1 || capacity > (1L << 38)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^38: " + capacity);
+        }
+        long slots = Math.max(2, capacity + (capacity + 2) / 3);
+        return 64 - Long.numberOfLeadingZeros(slots - 1);
+    }
+
+    // Returns the value stored for the board, if any
+    public OptionalLong lookup(GameBoard board) {
+        long slot = find(encode(board));
+        if (slot < 0) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(chunk(slot).getLong(offset(slot) + VALUE_OFFSET));
+    }
+
+    public boolean contains(GameBoard board) {
+        return find(encode(board)) >= 0;
+    }
+
+    // Stores or replaces the value for the board; returns true if the position is new
+    public boolean insert(GameBoard board, long value) {
+        long hash = encode(board);
+        long slot = find(hash);
+        if (slot >= 0) {
+            chunk(slot).putLong(offset(slot) + VALUE_OFFSET, value);
+            return false;
+        }
+        if (count >= maxCount) {
+            throw new IllegalStateException("Position store is full: " + count + " positions");
+        }
+        slot = ~slot;
+        ByteBuffer chunk = chunk(slot);
+        int offset = offset(slot);
+        chunk.putLong(offset + VALUE_OFFSET, value);
+        chunk.put(offset + CELLS_OFFSET, exponents);
+        chunk.putLong(offset, hash);
+        count++;
+        header.putLong(COUNT_OFFSET, count);
+        return true;
+    }
+
+    // Visits positions in slot order, not insertion order
+    public void forEach(Visitor visitor) {
+        for (long slot = 0; slot <= slotMask; slot++) {
+            ByteBuffer chunk = chunk(slot);
+            int offset = offset(slot);
+            if (chunk.getLong(offset) == 0) {
+                continue;
+            }
+            for (int cell = 0; cell < values.length; cell++) {
+                int exponent = chunk.get(offset + CELLS_OFFSET + cell);
+                values[cell] = exponent == 0 ? 0 : 1 << exponent;
+            }
+            visitor.accept(GameBoard.fromValues(boardSize, values, 0), chunk.getLong(offset + VALUE_OFFSET));
+        }
+    }
+
+    // Slot holding the encoded board, or ~slot of the free slot where it would go
+    private long find(long hash) {
+        for (long slot = TranspositionTable.mix64(hash) & slotMask; ; slot = (slot + 1) & slotMask) {
+            ByteBuffer chunk = chunk(slot);
+            int offset = offset(slot);
+            long stored = chunk.getLong(offset);
+            if (stored == 0) {
+                return ~slot;
+            }
+            if (stored == hash && sameCells(chunk, offset + CELLS_OFFSET)) {
+                return slot;
+            }
+        }
+    }
+
+    private boolean sameCells(ByteBuffer chunk, int offset) {
+        for (int cell = 0; cell < exponents.length; cell++) {
+            if (chunk.get(offset + cell) != exponents[cell]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Fills exponents with the board's canonical cells and returns their hash, never 0
+    private long encode(GameBoard board) {
+        if (board.getSize() != boardSize) {
+            throw new IllegalArgumentException("Expected a " + boardSize + "x" + boardSize + " board");
+        }
+        board.copyValues(values);
+        BoardSymmetry.canonicalExponents(values, boardSize, exponents);
+        return BoardSymmetry.hash(exponents);
+    }
+
+    private ByteBuffer chunk(long slot) {
+        return chunks[(int) (slot >>> chunkShift)];
+    }
+
+    private int offset(long slot) {
+        return (int) (slot & chunkMask) * recordBytes;
+    }
+
+    public long size() { return count; }
+    public long getCapacity() { return maxCount; }
+    public int getBoardSize() { return boardSize; }
+
+    // Writes a file-backed store through to disk; a no-op for in-memory stores
+    public void flush() {
+        if (header instanceof MappedByteBuffer) {
+            for (ByteBuffer chunk : chunks) {
+                ((MappedByteBuffer) chunk).force();
+            }
+            ((MappedByteBuffer) header).force();
+        }
+    }
+
+    // The mappings are released once the store is garbage collected
+    @Override
+    public void close() {
+        flush();
+    }
+}
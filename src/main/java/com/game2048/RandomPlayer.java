@@ -0,0 +1,35 @@
+package com.game2048;
+
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+// Plays a uniformly random direction among those that change the board
+public final class RandomPlayer implements AiPlayer {
+    private final RandomGenerator random;
+
+    public RandomPlayer() {
+        this(new SplittableRandom());
+    }
+
+    // The generator is not shared between threads, so use one player per game when seeding
+    public RandomPlayer(RandomGenerator random) {
+        this.random = random;
+    }
+
+    @Override
+    public Optional<Direction> chooseMove(GameBoard board) {
+        int legal = board.legalMoves();
+        if (legal == 0) {
+            return Optional.empty();
+        }
+        // Pick the n-th set bit of the legal mask
+        int target = random.nextInt(Integer.bitCount(legal));
+        for (Direction direction : Direction.values()) {
+            if ((legal & direction.mask()) != 0 && target-- == 0) {
+                return Optional.of(direction);
+            }
+        }
+        throw new IllegalStateException("Legal move mask out of sync");
+    }
+}
@@ -0,0 +1,31 @@
+package com.game2048;
+
+// Board by board through LineSlider, striding across the cell-major layout
+final class ScalarSlideKernel implements SlideKernel {
+    static final ScalarSlideKernel INSTANCE = new ScalarSlideKernel();
+
+    private ScalarSlideKernel() {
+    }
+
+    @Override
+    public void slide(int[] cells, int capacity, int size, int[] directions, int from, int to,
+                      int[] scoreDeltas, boolean[] changed) {
+        for (int board = from; board < to; board++) {
+            int score = 0;
+            boolean moved = false;
+            int direction = directions[board];
+            if (direction >= 0) {
+                for (int line = 0; line < size; line++) {
+                    int start = BoardBatch.lineStart(direction, line, size) * capacity + board;
+                    int gained = LineSlider.slide(cells, start, BoardBatch.lineStep(direction, size) * capacity, size);
+                    if (gained >= 0) {
+                        score += gained;
+                        moved = true;
+                    }
+                }
+            }
+            scoreDeltas[board] = score;
+            changed[board] = moved;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.game2048;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+// Outcome of one simulated game
+class GameResult {
+    private final int score;
+    private final int moves;
+    private final int maxTile;
+    private final boolean won;
+
+    public GameResult(int score, int moves, int maxTile, boolean won) {
+        this.score = score;
+        this.moves = moves;
+        this.maxTile = maxTile;
+        this.won = won;
+    }
+
+    public int getScore() { return score; }
+    public int getMoves() { return moves; }
+    public int getMaxTile() { return maxTile; }
+    public boolean isWon() { return won; }
+}
+
+// Aggregated throughput and outcome statistics for a batch of games
+class SimulationReport {
+    private final List<GameResult> results;
+    private final long elapsedNanos;
+
+    public SimulationReport(List<GameResult> results, long elapsedNanos) {
+        this.results = results;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getGames() { return results.size(); }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    public long getTotalMoves() {
+        return results.stream().mapToLong(GameResult::getMoves).sum();
+    }
+
+    public double getGamesPerSecond() {
+        return getGames() / (elapsedNanos / 1e9);
+    }
+
+    public double getMovesPerSecond() {
+        return getTotalMoves() / (elapsedNanos / 1e9);
+    }
+
+    public double getWinRate() {
+        return results.isEmpty() ? 0 : (double) results.stream().filter(GameResult::isWon).count() / results.size();
+    }
+
+    public Map<Integer, Integer> getMaxTileHistogram() {
+        Map<Integer, Integer> histogram = new TreeMap<>();
+        results.forEach(result -> histogram.merge(result.getMaxTile(), 1, Integer::sum));
+        return histogram;
+    }
+
+    // Score at the given percentile (0-100), nearest rank
+    public int getScorePercentile(double percentile) {
+        int[] scores = results.stream().mapToInt(GameResult::getScore).sorted().toArray();
+        return scores.length == 0 ? 0 : scores[SimulationRunner.nearestRank(percentile, scores.length)];
+    }
+
+    public double getMeanScore() {
+        return results.stream().mapToInt(GameResult::getScore).average().orElse(0);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("Games: %d in %.2f s (%.1f games/s)%n",
+                getGames(), elapsedNanos / 1e9, getGamesPerSecond()));
+        builder.append(String.format("Moves: %d (%.0f moves/s)%n", getTotalMoves(), getMovesPerSecond()));
+        builder.append(String.format("Score: min %d, p50 %d, p90 %d, max %d, mean %.1f%n",
+                getScorePercentile(0), getScorePercentile(50), getScorePercentile(90),
+                getScorePercentile(100), getMeanScore()));
+        builder.append(String.format("Win rate: %.2f%%%n", getWinRate() * 100));
+        builder.append("Max tile histogram:");
+        getMaxTileHistogram().forEach((tile, count) -> builder.append(String.format("%n  %6d: %d (%.2f%%)",
+                tile, count, 100.0 * count / getGames())));
+        return builder.toString();
+    }
+}
+
+// Headless batch runner: plays many games with one policy across a thread pool.
+// Every game gets its own seed drawn from the run seed, so results are
+// reproducible regardless of thread count and workers never share random state.
+public final class SimulationRunner {
+    private final int size;
+    private final int threads;
+    private final Function<RandomGenerator, AiPlayer> players;
+    private final long seed;
+    private final GameRecordWriter recorder;
+
+    // players receives a per-game generator and may return a shared, thread-safe player
+    public SimulationRunner(int size, int threads, Function<RandomGenerator, AiPlayer> players, long seed) {
+        this(size, threads, players, seed, null);
+    }
+
+    // recorder, if not null, receives every finished game; the caller closes it
+    public SimulationRunner(int size, int threads, Function<RandomGenerator, AiPlayer> players, long seed,
+                            GameRecordWriter recorder) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.size = size;
+        this.threads = threads;
+        this.players = players;
+        this.seed = seed;
+        this.recorder = recorder;
+    }
+
+    public SimulationReport run(int games) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            SplittableRandom seeds = new SplittableRandom(seed);
+            List<Future<GameResult>> futures = new ArrayList<>(games);
+            for (int i = 0; i < games; i++) {
+                long gameSeed = seeds.nextLong();
+                futures.add(executor.submit(() -> playGame(gameSeed)));
+            }
+            List<GameResult> results = new ArrayList<>(games);
+            for (Future<GameResult> future : futures) {
+                results.add(future.get());
+            }
+            return new SimulationReport(results, System.nanoTime() - start);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulated game failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    GameResult playGame(long gameSeed) {
+        SplittableRandom random = new SplittableRandom(gameSeed);
+        AiPlayer player = players.apply(random.split());
+        GameBoard initial = GameBoard.createInitialBoard(size, random);
+        GameBoard board = initial;
+        // Packed as in GameRecordWriter: direction | 4-spawn flag << 2 | (spawn cell + 1) << 3
+        int[] record = recorder == null ? null : new int[256];
+        int moves = 0;
+        while (!board.isGameOver()) {
+            Optional<Direction> direction = player.chooseMove(board);
+            if (direction.isEmpty()) {
+                break;
+            }
+            GameBoard next = board.move(direction.get());
+            if (next == board) {
+                break;
+            }
+            board = next;
+            if (record != null) {
+                if (moves == record.length) {
+                    record = Arrays.copyOf(record, moves * 2);
+                }
+                record[moves] = GameHistory.pack(direction.get(), board);
+            }
+            moves++;
+        }
+        if (record != null) {
+            writeRecord(initial, gameSeed, record, moves);
+        }
+        return new GameResult(board.getScore(), moves, board.getMaxTile(), board.isWon());
+    }
+
+    private void writeRecord(GameBoard initial, long gameSeed, int[] record, int moves) {
+        Direction[] directions = Direction.values();
+        synchronized (recorder) {
+            try {
+                recorder.beginGame(initial, gameSeed);
+                for (int i = 0; i < moves; i++) {
+                    int word = record[i];
+                    recorder.recordMove(directions[word & 3], (word >>> 3) - 1, (word & 4) != 0 ? 4 : 2);
+                }
+                recorder.endGame();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not record game", e);
+            }
+        }
+    }
+
+    // Index of the given percentile (0-100) in count sorted values, by nearest rank; count must be
+    // positive. Also used by GameLoadClient so both report percentiles the same way.
+    static int nearestRank(double percentile, int count) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        if (count < 1) {
+            throw new IllegalArgumentException("Count must be positive: " + count);
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return Math.max(0, Math.min(count - 1, rank - 1));
+    }
+
+    static Function<RandomGenerator, AiPlayer> createPlayers(String policy, int depth, long timeMillis,
+                                                             int rollouts, BoardEvaluator evaluator) {
+        switch (policy) {
+            case "random":
+                return RandomPlayer::new;
+            case "greedy": {
+                AiPlayer greedy = new GreedyPlayer();
+                return random -> greedy;
+            }
+            case "expectimax": {
+                AiPlayer solver = new ExpectimaxSolver(depth, Duration.ofMillis(timeMillis),
+                        ExpectimaxSolver.PROBABILITY_CUTOFF, evaluator);
+                return random -> solver;
+            }
+            case "montecarlo":
+                // Games already run in parallel, so each player runs its rollouts on the game's thread
+                return random -> new MonteCarloPlayer(rollouts, 1, random.nextLong());
+            default: throw new IllegalArgumentException("Unknown policy: " + policy);
+        }
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: simulate [--games N] [--size N] [--threads N] [--seed N]");
+        System.out.println("                [--policy random|greedy|expectimax|montecarlo|tablebase]");
+        System.out.println("                [--depth N] [--time-ms N] [--rollouts N] [--record FILE] [--tablebase FILE]");
+        System.out.println("                [--weights empty=W,merges=W,monotonicity=W,smoothness=W,tile_mass=W,corner=W]");
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int games = 100;
+        int size = 4;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String policy = "random";
+        int depth = ExpectimaxSolver.ADAPTIVE_DEPTH;
+        long timeMillis = 0;
+        int rollouts = 100;
+        long seed = new SplittableRandom().nextLong();
+        Path recordPath = null;
+        Path tablebasePath = null;
+        BoardEvaluator evaluator = WeightedEvaluator.defaults();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--games": games = Integer.parseInt(value); i++; break;
+                    case "--size": size = Integer.parseInt(value); i++; break;
+                    case "--threads": threads = Integer.parseInt(value); i++; break;
+                    case "--policy": policy = value; i++; break;
+                    case "--depth": depth = Integer.parseInt(value); i++; break;
+                    case "--time-ms": timeMillis = Long.parseLong(value); i++; break;
+                    case "--rollouts": rollouts = Integer.parseInt(value); i++; break;
+                    case "--seed": seed = Long.parseLong(value); i++; break;
+                    case "--record": recordPath = Path.of(value); i++; break;
+                    case "--weights": evaluator = WeightedEvaluator.parse(value); i++; break;
+                    case "--tablebase": tablebasePath = Path.of(value); i++; break;
+                    default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            if ("expectimax".equals(policy) && size != BitBoard.SIZE) {
+                throw new IllegalArgumentException("The expectimax policy only supports size " + BitBoard.SIZE);
+            }
+            if ("tablebase".equals(policy) != (tablebasePath != null)) {
+                throw new IllegalArgumentException("The tablebase policy needs --tablebase FILE, and only it takes one");
+            }
+            // Closed whichever way the run ends; a null resource is skipped
+            try (Tablebase tablebase = tablebasePath == null ? null : Tablebase.open(tablebasePath)) {
+                Function<RandomGenerator, AiPlayer> players;
+                if (tablebase != null) {
+                    if (tablebase.getBoardSize() != size) {
+                        throw new IllegalArgumentException("The tablebase is for size " + tablebase.getBoardSize());
+                    }
+                    players = random -> tablebase;
+                } else {
+                    players = createPlayers(policy, depth, timeMillis, rollouts, evaluator);
+                }
+                System.out.println("Simulating " + games + " games of " + size + "x" + size
+                        + " with policy " + policy + " on " + threads + " threads, seed " + seed);
+                if (recordPath == null) {
+                    System.out.println(new SimulationRunner(size, threads, players, seed).run(games));
+                } else {
+                    try (GameRecordWriter recorder = new GameRecordWriter(recordPath)) {
+                        System.out.println(new SimulationRunner(size, threads, players, seed, recorder).run(games));
+                    }
+                    System.out.println("Recorded " + games + " games to " + recordPath);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("I/O error: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid arguments: " + e.getMessage());
+            printUsage();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.game2048;
+
+// Slides a range of boards in a batch, each towards its own direction (-1 = leave it alone),
+// storing the points gained and whether the board changed
+interface SlideKernel {
+    void slide(int[] cells, int capacity, int size, int[] directions, int from, int to,
+               int[] scoreDeltas, boolean[] changed);
+}
@@ -0,0 +1,163 @@
+package com.game2048;
+
+// Packed 2x2 or 3x3 board for exhaustive analysis: a 4-bit exponent per cell, row-major, with
+// cell i at bits 4i. Rows slide through per-row tables as in BitBoard, columns by transposing.
+// Directions are passed as ordinals.
+final class SmallBoard {
+    static final int MAX_SIZE = 3;
+    static final int SYMMETRIES = 8;
+
+    private static final SmallBoard[] BY_SIZE = {null, null, new SmallBoard(2), new SmallBoard(3)};
+
+    final int size;
+    final int cells;
+    private final int rowBits;
+    private final int rowMask;
+    // Indexed by packed row
+    private final int[] left;
+    private final int[] right;
+    private final int[] score;
+    private final int[] reverse;
+    // spread[r][row] places a row as column r
+    private final long[][] spread;
+
+    private SmallBoard(int size) {
+        this.size = size;
+        this.cells = size * size;
+        this.rowBits = 4 * size;
+        this.rowMask = (1 << rowBits) - 1;
+        int rows = 1 << rowBits;
+        this.left = new int[rows];
+        this.right = new int[rows];
+        this.score = new int[rows];
+        this.reverse = new int[rows];
+        this.spread = new long[size][rows];
+        int[] line = new int[size];
+        for (int row = 0; row < rows; row++) {
+            int reversed = 0;
+            for (int k = 0; k < size; k++) {
+                line[k] = (row >>> (4 * k)) & 0xF;
+                reversed |= line[k] << (4 * (size - 1 - k));
+                for (int r = 0; r < size; r++) {
+                    spread[r][row] |= (long) line[k] << (4 * (k * size + r));
+                }
+            }
+            reverse[row] = reversed;
+            score[row] = BitBoard.slideLineLeft(line);
+            int result = 0;
+            for (int k = 0; k < size; k++) {
+                result |= line[k] << (4 * k);
+            }
+            left[row] = result;
+        }
+        for (int row = 0; row < rows; row++) {
+            right[row] = reverse[left[reverse[row]]];
+        }
+    }
+
+    static SmallBoard of(int size) {
+        if (size < 2 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Board size must be between 2 and " + MAX_SIZE + ": " + size);
+        }
+        return BY_SIZE[size];
+    }
+
+    long pack(GameBoard board) {
+        if (board.getSize() != size) {
+            throw new IllegalArgumentException("Expected a " + size + "x" + size + " board");
+        }
+        long packed = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            packed |= (long) BitBoard.toExponent(board.getValue(cell / size, cell % size)) << (4 * cell);
+        }
+        return packed;
+    }
+
+    private int row(long board, int row) {
+        return (int) (board >>> (rowBits * row)) & rowMask;
+    }
+
+    private long rows(long board, int[] table) {
+        long result = 0;
+        for (int r = 0; r < size; r++) {
+            result |= (long) table[row(board, r)] << (rowBits * r);
+        }
+        return result;
+    }
+
+    long slide(long board, int direction) {
+        switch (direction) {
+            case 0: return rows(board, left);
+            case 1: return rows(board, right);
+            case 2: return transpose(rows(transpose(board), left));
+            case 3: return transpose(rows(transpose(board), right));
+            default: throw new IllegalArgumentException("Invalid direction: " + direction);
+        }
+    }
+
+    // Points earned by sliding in the direction
+    int mergeScore(long board, int direction) {
+        long lines = direction < 2 ? board : transpose(board);
+        int points = 0;
+        for (int r = 0; r < size; r++) {
+            points += score[row(lines, r)];
+        }
+        return points;
+    }
+
+    long transpose(long board) {
+        long result = 0;
+        for (int r = 0; r < size; r++) {
+            result |= spread[r][row(board, r)];
+        }
+        return result;
+    }
+
+    long mirror(long board) {
+        return rows(board, reverse);
+    }
+
+    long flip(long board) {
+        long result = 0;
+        for (int r = 0; r < size; r++) {
+            result |= (long) row(board, r) << (rowBits * (size - 1 - r));
+        }
+        return result;
+    }
+
+    // One of the 8 rotations and reflections: bit 2 transposes, bit 1 flips rows, bit 0 mirrors columns
+    long transform(long board, int symmetry) {
+        long result = (symmetry & 4) != 0 ? transpose(board) : board;
+        result = (symmetry & 2) != 0 ? flip(result) : result;
+        return (symmetry & 1) != 0 ? mirror(result) : result;
+    }
+
+    // Smallest of the 8 symmetric variants, shared by all of them
+    long canonical(long board) {
+        long flipped = flip(board);
+        long transposed = transpose(board);
+        long transposedFlipped = flip(transposed);
+        long min = Math.min(board, mirror(board));
+        min = Math.min(min, Math.min(flipped, mirror(flipped)));
+        min = Math.min(min, Math.min(transposed, mirror(transposed)));
+        return Math.min(min, Math.min(transposedFlipped, mirror(transposedFlipped)));
+    }
+
+    // Sum of the tile values; slides keep it, a spawn adds 2 or 4
+    int tileSum(long board) {
+        int sum = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            int exponent = (int) (board >>> (4 * cell)) & 0xF;
+            sum += exponent == 0 ? 0 : 1 << exponent;
+        }
+        return sum;
+    }
+
+    int maxExponent(long board) {
+        int max = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            max = Math.max(max, (int) (board >>> (4 * cell)) & 0xF);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,190 @@
+package com.game2048;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+// Perfect play for 2x2 and 3x3 boards, read from a file written by TablebaseGenerator.
+// Every reachable position is stored once in canonical form (see SmallBoard.canonical), with
+// its value under optimal play and the best move for the canonical orientation.
+//
+// File layout (big-endian):
+//   header     "2048TB01", size:i32, targetExponent:i32 (0 = maximise score), layerCount:i32,
+//              positionCount:i64
+//   directory  layerCount x count:i32, layer L holding the positions whose tiles sum to 2L
+//   records    per layer, sorted by key: key and move packed in 40 bits (key in the low 36,
+//              0 = no move or direction ordinal + 1 above it), value:f32
+//
+// A value is the expected number of points still to be scored, or with a target tile the
+// chance of reaching it. A lookup is a binary search in one layer, the largest of which holds
+// under 100,000 of the 48.7 million 3x3 positions, so at most 17 probes. Safe for concurrent readers.
+public final class Tablebase implements AiPlayer, Closeable {
+    static final byte[] MAGIC = "2048TB01".getBytes(StandardCharsets.US_ASCII);
+    static final int HEADER_BYTES = 28;
+    static final int RECORD_BYTES = 9;
+    static final long KEY_MASK = (1L << 36) - 1;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final FileChannel channel;
+    private final SmallBoard boards;
+    private final int targetExponent;
+    private final long positionCount;
+    private final int[] layerCounts;
+    // Record index of each layer's first position
+    private final long[] layerStarts;
+    private final MappedByteBuffer records;
+
+    private Tablebase(FileChannel channel, Path path) throws IOException {
+        this.channel = channel;
+        long fileSize = channel.size();
+        if (fileSize < HEADER_BYTES) {
+            throw new IOException("Not a tablebase: " + path);
+        }
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        byte[] magic = new byte[MAGIC.length];
+        header.get(magic);
+        int size = header.getInt();
+        this.targetExponent = header.getInt();
+        int layerCount = header.getInt();
+        this.positionCount = header.getLong();
+        if (!Arrays.equals(magic, MAGIC) || size < 2 || size > SmallBoard.MAX_SIZE || layerCount < 0) {
+            throw new IOException("Not a tablebase: " + path);
+        }
+        this.boards = SmallBoard.of(size);
+
+        long directoryBytes = 4L * layerCount;
+        long recordBytes = positionCount * RECORD_BYTES;
+        if (fileSize != HEADER_BYTES + directoryBytes + recordBytes) {
+            throw new IOException("Truncated tablebase: " + path);
+        }
+        if (recordBytes > Integer.MAX_VALUE) {
+            throw new IOException("Tablebase too large to map: " + positionCount + " positions");
+        }
+        ByteBuffer directory = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, directoryBytes);
+        this.layerCounts = new int[layerCount];
+        this.layerStarts = new long[layerCount];
+        long start = 0;
+        for (int layer = 0; layer < layerCount; layer++) {
+            layerCounts[layer] = directory.getInt();
+            layerStarts[layer] = start;
+            start += layerCounts[layer];
+        }
+        if (start != positionCount) {
+            throw new IOException("Corrupt tablebase directory: " + path);
+        }
+        this.records = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + directoryBytes, recordBytes);
+    }
+
+    public static Tablebase open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new Tablebase(channel, path);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Record index of the canonical board, or -1 if the position is not in the table
+    private long find(long key) {
+        int layer = boards.tileSum(key) / 2;
+        if (layer >= layerCounts.length) {
+            return -1;
+        }
+        long low = layerStarts[layer];
+        long high = low + layerCounts[layer] - 1;
+        while (low <= high) {
+            long middle = (low + high) >>> 1;
+            long stored = field(middle) & KEY_MASK;
+            if (stored < key) {
+                low = middle + 1;
+            } else if (stored > key) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private long field(long record) {
+        int offset = (int) (record * RECORD_BYTES);
+        return (records.getInt(offset) & 0xFFFFFFFFL) << 8 | (records.get(offset + 4) & 0xFF);
+    }
+
+    // Expected points still to come under perfect play, or the chance of reaching the target tile;
+    // empty for positions the table does not cover
+    public OptionalDouble value(GameBoard board) {
+        long record = find(boards.canonical(boards.pack(board)));
+        if (record < 0) {
+            return OptionalDouble.empty();
+        }
+        return OptionalDouble.of(records.getFloat((int) (record * RECORD_BYTES) + 5));
+    }
+
+    // The move perfect play makes; empty when no move is possible, the target is reached or the
+    // position is not in the table
+    public Optional<Direction> bestMove(GameBoard board) {
+        long packed = boards.pack(board);
+        long key = boards.canonical(packed);
+        long record = find(key);
+        if (record < 0) {
+            return Optional.empty();
+        }
+        int move = (int) (field(record) >>> 36) - 1;
+        if (move < 0) {
+            return Optional.empty();
+        }
+        // The stored move is for the canonical orientation: find the one that maps onto it
+        int symmetry = 0;
+        while (boards.transform(packed, symmetry) != key) {
+            symmetry++;
+        }
+        long target = boards.slide(key, move);
+        for (int direction = 0; direction < DIRECTIONS.length; direction++) {
+            long moved = boards.slide(packed, direction);
+            if (moved != packed && boards.transform(moved, symmetry) == target) {
+                return Optional.of(DIRECTIONS[direction]);
+            }
+        }
+        throw new IllegalStateException("No move matches the stored one");
+    }
+
+    // Best move from the table; positions it does not cover get the first legal move
+    @Override
+    public Optional<Direction> chooseMove(GameBoard board) {
+        Optional<Direction> best = bestMove(board);
+        if (best.isPresent()) {
+            return best;
+        }
+        for (Direction direction : DIRECTIONS) {
+            if (board.canMove(direction)) {
+                return Optional.of(direction);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public int getBoardSize() { return boards.size; }
+    public long getPositionCount() { return positionCount; }
+
+    // Tile value the table maximises the chance of reaching, or 0 when it maximises the score
+    public int getTargetTile() {
+        return targetExponent == 0 ? 0 : 1 << targetExponent;
+    }
+
+    // The mapping is released once the table is garbage collected
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
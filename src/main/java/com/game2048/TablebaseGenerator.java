@@ -0,0 +1,360 @@
+package com.game2048;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Solves 2x2 and 3x3 games exactly and writes the result as a Tablebase file.
+//
+// A slide keeps the sum of the tiles and a spawn adds 2 or 4, so positions fall into layers by
+// tile sum and every move leads from layer L to layer L + 1 or L + 2. Reachable positions are
+// enumerated forwards from every starting board, layer by layer, in canonical form. Values are
+// then computed backwards from the last layer (retrograde analysis): each position takes the
+// best direction's points plus the average value over the spawns that follow, 90% 2 and 10% 4
+// in each empty cell. Both passes split every layer into chunks solved in parallel.
+//
+// With a target tile, positions holding it count as won (value 1, not expanded) and the values
+// are winning chances instead of points.
+public final class TablebaseGenerator {
+    private static final int CHUNK = 4096;
+
+    private final SmallBoard boards;
+    private final int targetExponent;
+    private final int threads;
+    // Layer L holds the sorted canonical positions whose tiles sum to 2L
+    private final List<long[]> layers = new ArrayList<>();
+    private float[][] values;
+    // Direction ordinal + 1 for the canonical board, 0 when there is no move to make
+    private byte[][] moves;
+
+    // targetTile 0 maximises the expected score
+    public TablebaseGenerator(int size, int targetTile, int threads) {
+        this.boards = SmallBoard.of(size);
+        if (targetTile != 0 && (targetTile < 4 || Integer.bitCount(targetTile) != 1 || targetTile > 1 << 15)) {
+            throw new IllegalArgumentException("Target must be 0 or a power of two from 4 to 32768: " + targetTile);
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.targetExponent = targetTile == 0 ? 0 : Integer.numberOfTrailingZeros(targetTile);
+        this.threads = threads;
+    }
+
+    // Growable array of positions
+    private static final class PositionList {
+        long[] positions = new long[1024];
+        int count;
+
+        void add(long position) {
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            positions[count++] = position;
+        }
+
+        void addAll(long[] more) {
+            if (count + more.length > positions.length) {
+                positions = Arrays.copyOf(positions, Math.max(count + more.length, count * 2));
+            }
+            System.arraycopy(more, 0, positions, count, more.length);
+            count += more.length;
+        }
+
+        long[] sortedUnique() {
+            Arrays.parallelSort(positions, 0, count);
+            int unique = 0;
+            for (int i = 0; i < count; i++) {
+                if (unique == 0 || positions[i] != positions[unique - 1]) {
+                    positions[unique++] = positions[i];
+                }
+            }
+            return Arrays.copyOf(positions, unique);
+        }
+    }
+
+    public void generate() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            enumerate(pool);
+            solve(pool);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private boolean isWon(long position) {
+        return targetExponent != 0 && boards.maxExponent(position) >= targetExponent;
+    }
+
+    private void enumerate(ExecutorService pool) throws InterruptedException {
+        List<PositionList> pending = new ArrayList<>();
+        for (int first = 0; first < boards.cells; first++) {
+            for (int second = first + 1; second < boards.cells; second++) {
+                for (long a = 1; a <= 2; a++) {
+                    for (long b = 1; b <= 2; b++) {
+                        long position = a << (4 * first) | b << (4 * second);
+                        pendingLayer(pending, boards.tileSum(position) / 2).add(boards.canonical(position));
+                    }
+                }
+            }
+        }
+        for (int layer = 0; layer < pending.size(); layer++) {
+            PositionList found = pending.get(layer);
+            long[] positions = found == null ? new long[0] : found.sortedUnique();
+            pending.set(layer, null);
+            layers.add(positions);
+            // Each chunk returns its successors one and two layers up
+            List<long[][]> successors = runChunks(pool, positions.length, (from, to) -> expand(positions, from, to));
+            for (long[][] chunk : successors) {
+                pendingLayer(pending, layer + 1).addAll(chunk[0]);
+                pendingLayer(pending, layer + 2).addAll(chunk[1]);
+            }
+        }
+        while (!layers.isEmpty() && layers.get(layers.size() - 1).length == 0) {
+            layers.remove(layers.size() - 1);
+        }
+    }
+
+    private static PositionList pendingLayer(List<PositionList> pending, int layer) {
+        while (pending.size() <= layer) {
+            pending.add(null);
+        }
+        if (pending.get(layer) == null) {
+            pending.set(layer, new PositionList());
+        }
+        return pending.get(layer);
+    }
+
+    private long[][] expand(long[] positions, int from, int to) {
+        PositionList twos = new PositionList();
+        PositionList fours = new PositionList();
+        for (int i = from; i < to; i++) {
+            long position = positions[i];
+            if (isWon(position)) {
+                continue;
+            }
+            for (int direction = 0; direction < 4; direction++) {
+                long moved = boards.slide(position, direction);
+                if (moved == position) {
+                    continue;
+                }
+                for (int cell = 0; cell < boards.cells; cell++) {
+                    if (((moved >>> (4 * cell)) & 0xF) == 0) {
+                        twos.add(boards.canonical(moved | 1L << (4 * cell)));
+                        fours.add(boards.canonical(moved | 2L << (4 * cell)));
+                    }
+                }
+            }
+        }
+        return new long[][] {twos.sortedUnique(), fours.sortedUnique()};
+    }
+
+    private void solve(ExecutorService pool) throws InterruptedException {
+        values = new float[layers.size()][];
+        moves = new byte[layers.size()][];
+        for (int layer = layers.size() - 1; layer >= 0; layer--) {
+            int current = layer;
+            values[layer] = new float[layers.get(layer).length];
+            moves[layer] = new byte[layers.get(layer).length];
+            runChunks(pool, layers.get(layer).length, (from, to) -> {
+                solve(current, from, to);
+                return null;
+            });
+        }
+    }
+
+    private void solve(int layer, int from, int to) {
+        long[] positions = layers.get(layer);
+        for (int i = from; i < to; i++) {
+            long position = positions[i];
+            if (isWon(position)) {
+                values[layer][i] = 1f;
+                continue;
+            }
+            int best = -1;
+            double bestValue = 0;
+            for (int direction = 0; direction < 4; direction++) {
+                long moved = boards.slide(position, direction);
+                if (moved == position) {
+                    continue;
+                }
+                double value = (targetExponent == 0 ? boards.mergeScore(position, direction) : 0)
+                        + spawnValue(moved, layer);
+                if (best < 0 || value > bestValue) {
+                    best = direction;
+                    bestValue = value;
+                }
+            }
+            values[layer][i] = (float) bestValue;
+            moves[layer][i] = (byte) (best + 1);
+        }
+    }
+
+    // Average value over every spawn after a slide
+    private double spawnValue(long moved, int layer) {
+        double sum = 0;
+        int empty = 0;
+        for (int cell = 0; cell < boards.cells; cell++) {
+            if (((moved >>> (4 * cell)) & 0xF) == 0) {
+                sum += 0.9 * valueOf(moved | 1L << (4 * cell), layer + 1)
+                        + 0.1 * valueOf(moved | 2L << (4 * cell), layer + 2);
+                empty++;
+            }
+        }
+        return sum / empty;
+    }
+
+    private float valueOf(long position, int layer) {
+        int index = Arrays.binarySearch(layers.get(layer), boards.canonical(position));
+        if (index < 0) {
+            throw new IllegalStateException("Position missing from layer " + layer);
+        }
+        return values[layer][index];
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask<T> {
+        T run(int from, int to);
+    }
+
+    // Splits [0, count) into chunks run on the pool, returning their results in order
+    private static <T> List<T> runChunks(ExecutorService pool, int count, ChunkTask<T> task)
+            throws InterruptedException {
+        List<Callable<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < count; from += CHUNK) {
+            int start = from;
+            int end = Math.min(count, from + CHUNK);
+            chunks.add(() -> task.run(start, end));
+        }
+        List<T> results = new ArrayList<>(chunks.size());
+        try {
+            for (Future<T> future : pool.invokeAll(chunks)) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Tablebase chunk failed", e.getCause());
+        }
+        return results;
+    }
+
+    // Value of a new game: the average over both starting tiles
+    public double getStartValue() {
+        double sum = 0;
+        int pairs = 0;
+        for (int first = 0; first < boards.cells; first++) {
+            for (int second = 0; second < boards.cells; second++) {
+                if (first == second) {
+                    continue;
+                }
+                for (long a = 1; a <= 2; a++) {
+                    for (long b = 1; b <= 2; b++) {
+                        long position = a << (4 * first) | b << (4 * second);
+                        sum += (a == 1 ? 0.9 : 0.1) * (b == 1 ? 0.9 : 0.1)
+                                * valueOf(position, boards.tileSum(position) / 2);
+                    }
+                }
+                pairs++;
+            }
+        }
+        return sum / pairs;
+    }
+
+    // Solved positions, for checking a written table: layer L, sorted canonical boards
+    int getLayerCount() { return layers.size(); }
+    long[] getLayer(int layer) { return layers.get(layer).clone(); }
+    float getValue(int layer, int index) { return values[layer][index]; }
+
+    // Direction ordinal of the best move for the canonical board, or -1
+    int getMove(int layer, int index) {
+        return moves[layer][index] - 1;
+    }
+
+    public long getPositionCount() {
+        long count = 0;
+        for (long[] layer : layers) {
+            count += layer.length;
+        }
+        return count;
+    }
+
+    public void write(Path path) throws IOException {
+        if (values == null) {
+            throw new IllegalStateException("Nothing generated yet");
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.write(Tablebase.MAGIC);
+            out.writeInt(boards.size);
+            out.writeInt(targetExponent);
+            out.writeInt(layers.size());
+            out.writeLong(getPositionCount());
+            for (long[] layer : layers) {
+                out.writeInt(layer.length);
+            }
+            for (int layer = 0; layer < layers.size(); layer++) {
+                long[] positions = layers.get(layer);
+                for (int i = 0; i < positions.length; i++) {
+                    long field = positions[i] | (long) moves[layer][i] << 36;
+                    out.writeInt((int) (field >>> 8));
+                    out.writeByte((int) field);
+                    out.writeFloat(values[layer][i]);
+                }
+            }
+        }
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: tablebase --out FILE [--size 2|3] [--target TILE] [--threads N]");
+        System.out.println("       TILE maximises the chance of reaching that tile instead of the score");
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int size = 3;
+        int target = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path out = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--size": size = Integer.parseInt(value); i++; break;
+                    case "--target": target = Integer.parseInt(value); i++; break;
+                    case "--threads": threads = Integer.parseInt(value); i++; break;
+                    case "--out": out = Path.of(value); i++; break;
+                    default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            if (out == null) {
+                throw new IllegalArgumentException("Missing --out");
+            }
+            TablebaseGenerator generator = new TablebaseGenerator(size, target, threads);
+            System.out.println("Solving " + size + "x" + size + (target == 0 ? " for score" : " for tile " + target)
+                    + " on " + threads + " threads");
+            long start = System.nanoTime();
+            generator.generate();
+            System.out.printf("Solved %d positions in %.1f s%n", generator.getPositionCount(),
+                    (System.nanoTime() - start) / 1e9);
+            System.out.printf(target == 0 ? "Expected score of a new game: %.2f%n"
+                    : "Chance of reaching the target from a new game: %.6f%n", generator.getStartValue());
+            generator.write(out);
+            System.out.println("Wrote " + out + " (" + Files.size(out) + " bytes)");
+        } catch (IOException e) {
+            System.out.println("Could not write tablebase: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid arguments: " + e.getMessage());
+            printUsage();
+        }
+    }
+}
@@ -7,6 +7,11 @@ public final class Tile {
     private final int col;
     private final boolean merged;
 
+    // Shared unmerged tiles for power-of-two values up to 2^CACHED_EXPONENTS-1 on boards up to CACHED_SIZE
+    private static final int CACHED_EXPONENTS = 18;
+    private static final int CACHED_SIZE = 16;
+    private static final Tile[] CACHE = new Tile[CACHED_EXPONENTS * CACHED_SIZE * CACHED_SIZE];
+
     public Tile(int value, int row, int col) {
         this(value, row, col, false);
     }
@@ -18,6 +23,23 @@ public final class Tile {
         this.merged = merged;
     }
 
+    // Returns a shared instance where possible; tiles are immutable, so sharing is safe
+    public static Tile of(int value, int row, int col) {
+        int exponent = value == 0 ? 0 : Integer.numberOfTrailingZeros(value);
+        if (Integer.bitCount(value) > 1 || exponent >= CACHED_EXPONENTS
+                || row < 0 || row >= CACHED_SIZE || col < 0 || col >= CACHED_SIZE) {
+            return new Tile(value, row, col);
+        }
+        int index = (exponent * CACHED_SIZE + row) * CACHED_SIZE + col;
+        Tile tile = CACHE[index];
+        if (tile == null) {
+            // Racing threads may each create one; all final fields, so any of them is safe to publish
+            tile = new Tile(value, row, col);
+            CACHE[index] = tile;
+        }
+        return tile;
+    }
+
     public int getValue() { return value; }
     public int getRow() { return row; }
     public int getCol() { return col; }
@@ -0,0 +1,46 @@
+package com.game2048;
+
+// Fixed-size, always-replace cache of search results keyed by packed board.
+// Each slot stores key ^ data next to data, so a slot torn by a concurrent
+// writer simply reads as a miss; the table can be shared between threads.
+final class TranspositionTable {
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+
+    TranspositionTable(int capacityBits) {
+        if (capacityBits < 1 || capacityBits > 30) {
+            throw new IllegalArgumentException("Capacity bits must be between 1 and 30: " + capacityBits);
+        }
+        this.keys = new long[1 << capacityBits];
+        this.data = new long[1 << capacityBits];
+        this.mask = (1 << capacityBits) - 1;
+    }
+
+    // Returns the cached value as float bits in the low 32 bits, or -1 when there is no entry at least this deep
+    long lookup(long board, int depth) {
+        int slot = slot(board);
+        long entry = data[slot];
+        if ((keys[slot] ^ entry) != board || (int) (entry >>> 32) < depth) {
+            return -1;
+        }
+        return entry & 0xFFFFFFFFL;
+    }
+
+    void store(long board, int depth, float value) {
+        int slot = slot(board);
+        long entry = ((long) depth << 32) | (Float.floatToRawIntBits(value) & 0xFFFFFFFFL);
+        data[slot] = entry;
+        keys[slot] = board ^ entry;
+    }
+
+    private int slot(long board) {
+        return (int) mix64(board) & mask;
+    }
+
+    static long mix64(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,108 @@
+package com.game2048;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Slide kernel for 4x4 batches on the incubating Vector API: each lane is one board, so a line of
+// every board in a vector-wide block is slid at once. The branchy LineSlider loop becomes
+// lane-wise blends: compact the tiles towards the edge, merge equal neighbours from the edge
+// outwards, compact again. A block is processed once per direction present in it, with the
+// other lanes masked off. The four cells of a line are kept in locals rather than an array so
+// the JIT can keep them in registers; other board sizes go to the scalar kernel.
+// Only loaded through BoardBatch, which falls back to the scalar kernel when the
+// jdk.incubator.vector module is missing.
+final class VectorSlideKernel implements SlideKernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public void slide(int[] cells, int capacity, int size, int[] directions, int from, int to,
+                      int[] scoreDeltas, boolean[] changed) {
+        if (size != BitBoard.SIZE) {
+            ScalarSlideKernel.INSTANCE.slide(cells, capacity, size, directions, from, to, scoreDeltas, changed);
+            return;
+        }
+        int board = from;
+        for (int upper = from + SPECIES.loopBound(to - from); board < upper; board += SPECIES.length()) {
+            IntVector direction = IntVector.fromArray(SPECIES, directions, board);
+            IntVector score = IntVector.zero(SPECIES);
+            VectorMask<Integer> moved = SPECIES.maskAll(false);
+            for (int d = 0; d < 4; d++) {
+                VectorMask<Integer> active = direction.compare(VectorOperators.EQ, d);
+                if (!active.anyTrue()) {
+                    continue;
+                }
+                int step = BoardBatch.lineStep(d, size) * capacity;
+                for (int line = 0; line < size; line++) {
+                    int o0 = BoardBatch.lineStart(d, line, size) * capacity + board;
+                    int o1 = o0 + step;
+                    int o2 = o1 + step;
+                    int o3 = o2 + step;
+                    IntVector c0 = IntVector.fromArray(SPECIES, cells, o0);
+                    IntVector c1 = IntVector.fromArray(SPECIES, cells, o1);
+                    IntVector c2 = IntVector.fromArray(SPECIES, cells, o2);
+                    IntVector c3 = IntVector.fromArray(SPECIES, cells, o3);
+                    IntVector a = c0;
+                    IntVector b = c1;
+                    IntVector c = c2;
+                    IntVector e = c3;
+
+                    // Compact: three passes of pulling the next cell into an empty one
+                    VectorMask<Integer> gap;
+                    for (int pass = 0; pass < 3; pass++) {
+                        gap = a.compare(VectorOperators.EQ, 0);
+                        a = a.blend(b, gap);
+                        b = b.blend(0, gap);
+                        gap = b.compare(VectorOperators.EQ, 0);
+                        b = b.blend(c, gap);
+                        c = c.blend(0, gap);
+                        gap = c.compare(VectorOperators.EQ, 0);
+                        c = c.blend(e, gap);
+                        e = e.blend(0, gap);
+                    }
+
+                    // Merge: a tile merged into its neighbour leaves an empty cell behind it
+                    VectorMask<Integer> merge = a.compare(VectorOperators.NE, 0).and(a.compare(VectorOperators.EQ, b));
+                    a = a.blend(a.add(a), merge);
+                    b = b.blend(0, merge);
+                    score = score.add(a, merge.and(active));
+                    merge = b.compare(VectorOperators.NE, 0).and(b.compare(VectorOperators.EQ, c));
+                    b = b.blend(b.add(b), merge);
+                    c = c.blend(0, merge);
+                    score = score.add(b, merge.and(active));
+                    merge = c.compare(VectorOperators.NE, 0).and(c.compare(VectorOperators.EQ, e));
+                    c = c.blend(c.add(c), merge);
+                    e = e.blend(0, merge);
+                    score = score.add(c, merge.and(active));
+
+                    // Close the gaps merges left; at most two, so two passes
+                    for (int pass = 0; pass < 2; pass++) {
+                        gap = a.compare(VectorOperators.EQ, 0);
+                        a = a.blend(b, gap);
+                        b = b.blend(0, gap);
+                        gap = b.compare(VectorOperators.EQ, 0);
+                        b = b.blend(c, gap);
+                        c = c.blend(0, gap);
+                        gap = c.compare(VectorOperators.EQ, 0);
+                        c = c.blend(e, gap);
+                        e = e.blend(0, gap);
+                    }
+
+                    moved = moved.or(a.compare(VectorOperators.NE, c0).and(active))
+                            .or(b.compare(VectorOperators.NE, c1).and(active))
+                            .or(c.compare(VectorOperators.NE, c2).and(active))
+                            .or(e.compare(VectorOperators.NE, c3).and(active));
+                    c0.blend(a, active).intoArray(cells, o0);
+                    c1.blend(b, active).intoArray(cells, o1);
+                    c2.blend(c, active).intoArray(cells, o2);
+                    c3.blend(e, active).intoArray(cells, o3);
+                }
+            }
+            score.intoArray(scoreDeltas, board);
+            moved.intoArray(changed, board);
+        }
+        // Boards left over after the last full vector
+        ScalarSlideKernel.INSTANCE.slide(cells, capacity, size, directions, board, to, scoreDeltas, changed);
+    }
+}
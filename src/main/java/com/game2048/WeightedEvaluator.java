@@ -0,0 +1,169 @@
+package com.game2048;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+// Weighted sum of Heuristic terms over every row and column, plus a constant per line that
+// keeps live boards above the 0 a dead end scores. With large, unordered tiles the penalties
+// can still outweigh that constant, so each line is clamped at LINE_FLOOR and every board
+// scores above 0. Each heuristic's score for every possible
+// 16-bit row is computed once, and each evaluator folds its weights into a single row table,
+// so a packed 4x4 board costs eight lookups. Other sizes, and 4x4 boards with tiles past
+// 32768, are scanned line by line. Immutable; withWeight returns a changed copy.
+public final class WeightedEvaluator implements BoardEvaluator {
+    static final float LINE_BASE = 200000f;
+    static final float LINE_FLOOR = 1f;
+
+    private static final Heuristic[] HEURISTICS = Heuristic.values();
+    private static final long ROW_MASK = 0xFFFFL;
+    private static final int MAX_PACKED_TILE = 1 << 15;
+
+    // Unweighted score of every heuristic for every possible 16-bit row. A row and its reverse
+    // share one computed entry, so rounding cannot make mirrored boards score differently.
+    private static final double[][] ROW_SCORES = new double[HEURISTICS.length][1 << 16];
+
+    static {
+        int[] line = new int[BitBoard.SIZE];
+        for (int row = 0; row < (1 << 16); row++) {
+            int reversed = reverseRow(row);
+            for (Heuristic heuristic : HEURISTICS) {
+                double[] scores = ROW_SCORES[heuristic.ordinal()];
+                if (reversed < row) {
+                    scores[row] = scores[reversed];
+                    continue;
+                }
+                for (int i = 0; i < BitBoard.SIZE; i++) {
+                    line[i] = (row >>> (4 * i)) & 0xF;
+                }
+                scores[row] = heuristic.score(line, BitBoard.SIZE);
+            }
+        }
+    }
+
+    private static int reverseRow(int row) {
+        return ((row >>> 12) & 0x000F) | ((row >>> 4) & 0x00F0)
+                | ((row << 4) & 0x0F00) | ((row << 12) & 0xF000);
+    }
+
+    private static final WeightedEvaluator DEFAULTS = new WeightedEvaluator(defaultWeights());
+
+    private final double[] weights;
+    // LINE_BASE plus the weighted heuristics, at least LINE_FLOOR, for every possible 16-bit row
+    private final float[] rowTable;
+
+    private WeightedEvaluator(double[] weights) {
+        this.weights = weights;
+        this.rowTable = new float[1 << 16];
+        for (int row = 0; row < rowTable.length; row++) {
+            double sum = LINE_BASE;
+            for (int h = 0; h < weights.length; h++) {
+                sum += weights[h] * ROW_SCORES[h][row];
+            }
+            rowTable[row] = (float) Math.max(LINE_FLOOR, sum);
+        }
+    }
+
+    // Free cells and available merges matter most, large tiles should line up and stay few
+    private static double[] defaultWeights() {
+        double[] weights = new double[HEURISTICS.length];
+        weights[Heuristic.EMPTY.ordinal()] = 270;
+        weights[Heuristic.MERGES.ordinal()] = 700;
+        weights[Heuristic.MONOTONICITY.ordinal()] = 47;
+        weights[Heuristic.TILE_MASS.ordinal()] = 11;
+        return weights;
+    }
+
+    public static WeightedEvaluator defaults() {
+        return DEFAULTS;
+    }
+
+    // Defaults overridden by a comma-separated list such as "empty=270,merges=700,corner=0"
+    public static WeightedEvaluator parse(String spec) {
+        WeightedEvaluator evaluator = DEFAULTS;
+        for (String pair : spec.split(",")) {
+            int equals = pair.indexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("Expected heuristic=weight: " + pair);
+            }
+            String name = pair.substring(0, equals).trim();
+            Heuristic heuristic;
+            try {
+                heuristic = Heuristic.valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown heuristic: " + name);
+            }
+            evaluator = evaluator.withWeight(heuristic, Double.parseDouble(pair.substring(equals + 1).trim()));
+        }
+        return evaluator;
+    }
+
+    public WeightedEvaluator withWeight(Heuristic heuristic, double weight) {
+        if (!Double.isFinite(weight)) {
+            throw new IllegalArgumentException("Weight must be finite: " + weight);
+        }
+        double[] changed = Arrays.copyOf(weights, weights.length);
+        changed[heuristic.ordinal()] = weight;
+        return new WeightedEvaluator(changed);
+    }
+
+    public double getWeight(Heuristic heuristic) {
+        return weights[heuristic.ordinal()];
+    }
+
+    @Override
+    public double evaluate(GameBoard board) {
+        int size = board.getSize();
+        if (size == BitBoard.SIZE && board.getMaxTile() <= MAX_PACKED_TILE) {
+            return evaluate(BitBoard.fromGameBoard(board));
+        }
+        int[] values = new int[size * size];
+        board.copyValues(values);
+        int[] rows = new int[size * size];
+        int[] columns = new int[size * size];
+        for (int cell = 0; cell < values.length; cell++) {
+            int exponent = values[cell] == 0 ? 0 : Integer.numberOfTrailingZeros(values[cell]);
+            rows[cell] = exponent;
+            columns[(cell % size) * size + cell / size] = exponent;
+        }
+        int[] line = new int[size];
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += evaluateLine(rows, i * size, line) + evaluateLine(columns, i * size, line);
+        }
+        return sum;
+    }
+
+    private double evaluateLine(int[] exponents, int start, int[] line) {
+        System.arraycopy(exponents, start, line, 0, line.length);
+        double sum = LINE_BASE;
+        for (int h = 0; h < weights.length; h++) {
+            if (weights[h] != 0) {
+                sum += weights[h] * HEURISTICS[h].score(line, line.length);
+            }
+        }
+        return Math.max(LINE_FLOOR, sum);
+    }
+
+    @Override
+    public double evaluate(long board) {
+        return scoreRows(board) + scoreRows(BitBoard.transpose(board));
+    }
+
+    // Summed in double, which is exact for table entries, so symmetric boards score identically
+    private double scoreRows(long board) {
+        return (double) rowTable[(int) (board & ROW_MASK)]
+                + rowTable[(int) ((board >>> 16) & ROW_MASK)]
+                + rowTable[(int) ((board >>> 32) & ROW_MASK)]
+                + rowTable[(int) ((board >>> 48) & ROW_MASK)];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (Heuristic heuristic : HEURISTICS) {
+            text.append(text.length() == 0 ? "" : ",")
+                    .append(heuristic.name().toLowerCase(Locale.ROOT)).append('=').append(weights[heuristic.ordinal()]);
+        }
+        return text.toString();
+    }
+}
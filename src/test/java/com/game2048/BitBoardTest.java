@@ -0,0 +1,100 @@
+package com.game2048;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BitBoardTest {
+    // Mostly small tiles so merges are common, up to 16384 so no merge goes past 32768
+    static long randomBoard(SplittableRandom random) {
+        long board = 0;
+        for (int cell = 0; cell < 16; cell++) {
+            int exponent = random.nextInt(3) == 0 ? 0 : 1 + random.nextInt(random.nextBoolean() ? 4 : 14);
+            board |= (long) exponent << (4 * cell);
+        }
+        return board;
+    }
+
+    // Cell of the k-th position along a line, counted from the edge the tiles move towards
+    static int cell(Direction direction, int line, int k) {
+        switch (direction) {
+            case LEFT: return line * 4 + k;
+            case RIGHT: return line * 4 + 3 - k;
+            case UP: return k * 4 + line;
+            default: return (3 - k) * 4 + line;
+        }
+    }
+
+    // The game's rules written out plainly: per line, drop the gaps, merge equal neighbours once
+    // from the edge, then drop the gaps again. Returns {board, score}.
+    static long[] referenceSlide(long board, Direction direction) {
+        long result = 0;
+        long score = 0;
+        for (int line = 0; line < 4; line++) {
+            int[] tiles = new int[4];
+            int count = 0;
+            for (int k = 0; k < 4; k++) {
+                int exponent = BitBoard.getExponent(board, cell(direction, line, k) / 4, cell(direction, line, k) % 4);
+                if (exponent != 0) {
+                    tiles[count++] = exponent;
+                }
+            }
+            int[] merged = new int[4];
+            int out = 0;
+            for (int i = 0; i < count; i++) {
+                if (i + 1 < count && tiles[i] == tiles[i + 1]) {
+                    merged[out++] = tiles[i] + 1;
+                    score += 1 << (tiles[i] + 1);
+                    i++;
+                } else {
+                    merged[out++] = tiles[i];
+                }
+            }
+            for (int k = 0; k < 4; k++) {
+                result |= (long) merged[k] << (4 * cell(direction, line, k));
+            }
+        }
+        return new long[] {result, score};
+    }
+
+    @Test
+    void slidesLikeTheRules() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 20000; i++) {
+            long board = randomBoard(random);
+            for (Direction direction : Direction.values()) {
+                long[] expected = referenceSlide(board, direction);
+                String message = direction + " on\n" + BitBoard.toString(board);
+                assertEquals(expected[0], BitBoard.slide(board, direction), message);
+                assertEquals(expected[1], BitBoard.mergeScore(board, direction), message);
+            }
+        }
+    }
+
+    @Test
+    void blockedRowWithEmptyCellIsUnchanged() {
+        // 2 4 0 0 cannot move left even though the row has empty cells
+        long board = 0x0021L;
+        assertEquals(board, BitBoard.slide(board, Direction.LEFT));
+        assertEquals(0, BitBoard.mergeScore(board, Direction.LEFT));
+        assertEquals(0x2100L, BitBoard.slide(board, Direction.RIGHT));
+        // GameBoard agrees: no change, so no spawn
+        GameBoard gameBoard = BitBoard.toGameBoard(board, 0);
+        GameBoard moved = gameBoard.move(Direction.LEFT);
+        assertEquals(gameBoard.toString(), moved.toString());
+        assertEquals(0, moved.getScore());
+    }
+
+    @Test
+    void neverMergesTwo32768Tiles() {
+        long board = 0x00FFL;
+        assertEquals(board, BitBoard.slide(board, Direction.LEFT));
+        assertEquals(0xFF00L, BitBoard.slide(board, Direction.RIGHT));
+        assertEquals(0, BitBoard.mergeScore(board, Direction.RIGHT));
+        // Full board whose only equal neighbours are the two 32768 tiles in the top row
+        assertTrue(BitBoard.isTerminal(0x6543_4321_6543_21FFL));
+    }
+}
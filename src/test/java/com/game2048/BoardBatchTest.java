@@ -0,0 +1,62 @@
+package com.game2048;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardBatchTest {
+    // Both kernels on the same random boards and directions, each board checked against GameBoard.slide
+    static void checkKernels(int size, int capacity, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        GameBoard[] boards = new GameBoard[capacity];
+        Direction[] directions = new Direction[capacity];
+        for (int i = 0; i < capacity; i++) {
+            int[] values = new int[size * size];
+            for (int cell = 0; cell < values.length; cell++) {
+                values[cell] = random.nextInt(3) == 0 ? 0 : 1 << (1 + random.nextInt(random.nextBoolean() ? 3 : 10));
+            }
+            boards[i] = GameBoard.fromValues(size, values, random.nextInt(1000));
+            // Some boards sit the move out
+            directions[i] = random.nextInt(8) == 0 ? null : Direction.values()[random.nextInt(4)];
+        }
+
+        for (SlideKernel kernel : new SlideKernel[] {ScalarSlideKernel.INSTANCE, new VectorSlideKernel()}) {
+            BoardBatch batch = new BoardBatch(size, capacity, kernel);
+            for (int i = 0; i < capacity; i++) {
+                batch.set(i, boards[i]);
+            }
+            int[] scoreDeltas = new int[capacity];
+            boolean[] changed = new boolean[capacity];
+            batch.slide(directions, scoreDeltas, changed);
+
+            for (int i = 0; i < capacity; i++) {
+                GameBoard expected = directions[i] == null ? boards[i] : boards[i].slide(directions[i]);
+                String message = kernel.getClass().getSimpleName() + " " + size + "x" + size + " board " + i
+                        + " of " + capacity + " " + directions[i] + "\n" + boards[i];
+                assertEquals(expected.toString(), batch.get(i).toString(), message);
+                assertEquals(expected.getScore() - boards[i].getScore(), scoreDeltas[i], message);
+                assertEquals(expected.getScore(), batch.getScore(i), message);
+                assertEquals(expected != boards[i], changed[i], message);
+            }
+        }
+    }
+
+    @Test
+    void kernelsMatchGameBoard() {
+        // Capacities below, at and off a multiple of every vector width
+        int[] capacities = {1, 3, 16, 64, 1000, 1027};
+        for (int size = 2; size <= 7; size++) {
+            for (int capacity : capacities) {
+                checkKernels(size, capacity, size * 10007L + capacity);
+            }
+        }
+    }
+
+    @Test
+    void defaultKernelIsVectorizedWhenTheModuleIsPresent() {
+        assertTrue(BoardBatch.isVectorized());
+    }
+}
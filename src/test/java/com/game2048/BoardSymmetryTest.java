@@ -0,0 +1,89 @@
+package com.game2048;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardSymmetryTest {
+    static int[] values(GameBoard board) {
+        int size = board.getSize();
+        int[] values = new int[size * size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                values[row * size + col] = board.getValue(row, col);
+            }
+        }
+        return values;
+    }
+
+    static int[] exponents(long board) {
+        int[] exponents = new int[16];
+        for (int i = 0; i < 16; i++) {
+            exponents[i] = BitBoard.getExponent(board, i / 4, i % 4);
+        }
+        return exponents;
+    }
+
+    @Test
+    void bitBoardTransformsMatchBoardSymmetry() {
+        SplittableRandom random = new SplittableRandom(1);
+        int[] expected = new int[16];
+        for (int i = 0; i < 2000; i++) {
+            long board = BitBoardTest.randomBoard(random);
+            int[] cells = exponents(board);
+            BoardSymmetry.apply(cells, 4, 1, expected);
+            assertArrayEquals(expected, exponents(BitBoard.transpose(board)));
+            BoardSymmetry.apply(cells, 4, 2, expected);
+            assertArrayEquals(expected, exponents(BitBoard.mirror(board)));
+            BoardSymmetry.apply(cells, 4, 4, expected);
+            assertArrayEquals(expected, exponents(BitBoard.flip(board)));
+        }
+    }
+
+    @Test
+    void bitBoardCanonicalIsSharedByAllSymmetries() {
+        SplittableRandom random = new SplittableRandom(2);
+        for (int i = 0; i < 5000; i++) {
+            long board = BitBoardTest.randomBoard(random);
+            long canonical = BitBoard.canonical(board);
+            long transposed = BitBoard.transpose(board);
+            long[] variants = {
+                    board, BitBoard.mirror(board), BitBoard.flip(board), BitBoard.mirror(BitBoard.flip(board)),
+                    transposed, BitBoard.mirror(transposed), BitBoard.flip(transposed),
+                    BitBoard.mirror(BitBoard.flip(transposed))
+            };
+            for (long variant : variants) {
+                assertEquals(canonical, BitBoard.canonical(variant), BitBoard.toString(board));
+                assertEquals(BitBoard.canonicalHash(board), BitBoard.canonicalHash(variant));
+                assertTrue(Long.compareUnsigned(canonical, variant) <= 0);
+            }
+        }
+    }
+
+    @Test
+    void gameBoardCanonicalIsSharedByAllSymmetries() {
+        SplittableRandom random = new SplittableRandom(3);
+        for (int size = 2; size <= 7; size++) {
+            int[] variant = new int[size * size];
+            for (int i = 0; i < 500; i++) {
+                GameBoard board = GameBoardTest.randomBoard(size, random);
+                GameBoard canonical = board.canonical();
+                int[] canonicalValues = values(canonical);
+                for (int symmetry = 0; symmetry < BoardSymmetry.COUNT; symmetry++) {
+                    BoardSymmetry.apply(values(board), size, symmetry, variant);
+                    GameBoard symmetric = GameBoard.fromValues(size, variant, board.getScore());
+                    String message = "symmetry " + symmetry + " of\n" + board;
+                    assertEquals(canonical.toString(), symmetric.canonical().toString(), message);
+                    assertEquals(board.canonicalHash(), symmetric.canonicalHash(), message);
+                    assertTrue(Arrays.compare(canonicalValues, variant) <= 0, message);
+                }
+                assertEquals(board.getScore(), canonical.getScore());
+            }
+        }
+    }
+}
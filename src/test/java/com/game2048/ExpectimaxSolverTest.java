@@ -0,0 +1,77 @@
+package com.game2048;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExpectimaxSolverTest {
+    // No two neighbours are equal and no cell is empty
+    static final long TERMINAL_BOARD = 0x1212_2121_1212_2121L;
+
+    // Mid-game position reached by seeded random moves
+    static long midGameBoard(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        GameBoard board = GameBoard.createInitialBoard(4, seed);
+        for (int i = 0; i < 30 && !board.isTerminalState(); i++) {
+            board = board.move(Direction.values()[random.nextInt(4)]);
+        }
+        return BitBoard.fromGameBoard(board);
+    }
+
+    // Wraps an evaluator so every packed evaluation spins for a while, making deep searches slow
+    static BoardEvaluator slowed(BoardEvaluator evaluator, long nanos) {
+        return new BoardEvaluator() {
+            @Override
+            public double evaluate(GameBoard board) {
+                return evaluator.evaluate(board);
+            }
+
+            @Override
+            public double evaluate(long board) {
+                long end = System.nanoTime() + nanos;
+                while (System.nanoTime() - end < 0) {
+                    Thread.onSpinWait();
+                }
+                return evaluator.evaluate(board);
+            }
+        };
+    }
+
+    @Test
+    void terminalBoardHasNoMove() {
+        assertTrue(BitBoard.isTerminal(TERMINAL_BOARD));
+        ExpectimaxSolver solver = ExpectimaxSolver.withDepth(3);
+        assertNull(solver.bestMove(TERMINAL_BOARD));
+        assertEquals(Optional.empty(), solver.chooseMove(BitBoard.toGameBoard(TERMINAL_BOARD, 0)));
+    }
+
+    @Test
+    void picksALegalMove() {
+        ExpectimaxSolver solver = ExpectimaxSolver.withDepth(2);
+        for (long seed = 1; seed <= 20; seed++) {
+            long board = midGameBoard(seed);
+            Direction move = solver.bestMove(board);
+            assertNotNull(move, BitBoard.toString(board));
+            assertTrue(BitBoard.slide(board, move) != board, BitBoard.toString(board));
+        }
+    }
+
+    @Test
+    void stopsAtTheTimeBudget() {
+        // Without the cutoff depth 10 would run for hours; the budget must stop it near 100 ms
+        ExpectimaxSolver solver = new ExpectimaxSolver(10, Duration.ofMillis(100), 0f);
+        long board = midGameBoard(3);
+        long start = System.nanoTime();
+        Direction move = solver.bestMove(board);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertNotNull(move);
+        assertTrue(elapsedMillis < 1000, "took " + elapsedMillis + " ms");
+    }
+}
@@ -0,0 +1,147 @@
+package com.game2048;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameBoardTest {
+    // Random board of any size with mostly small tiles so merges are common
+    static GameBoard randomBoard(int size, SplittableRandom random) {
+        int[] values = new int[size * size];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(3) == 0 ? 0 : 2 << random.nextInt(random.nextBoolean() ? 3 : 12);
+        }
+        return GameBoard.fromValues(size, values, 0);
+    }
+
+    static int tileSum(GameBoard board) {
+        int sum = 0;
+        for (int row = 0; row < board.getSize(); row++) {
+            for (int col = 0; col < board.getSize(); col++) {
+                sum += board.getValue(row, col);
+            }
+        }
+        return sum;
+    }
+
+    @Test
+    void slidesLikeBitBoard() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 20000; i++) {
+            long board = BitBoardTest.randomBoard(random);
+            GameBoard gameBoard = BitBoard.toGameBoard(board, 0);
+            int expectedMask = 0;
+            for (Direction direction : Direction.values()) {
+                String message = direction + " on\n" + BitBoard.toString(board);
+                long slid = BitBoard.slide(board, direction);
+                GameBoard moved = gameBoard.slide(direction);
+                assertEquals(slid, BitBoard.fromGameBoard(moved), message);
+                assertEquals(BitBoard.mergeScore(board, direction), moved.getScore(), message);
+                assertEquals(slid != board, gameBoard.canMove(direction), message);
+                if (slid != board) {
+                    expectedMask |= direction.mask();
+                }
+            }
+            assertEquals(expectedMask, gameBoard.legalMoves());
+        }
+    }
+
+    @Test
+    void slideNeverSpawnsOnAnySize() {
+        SplittableRandom random = new SplittableRandom(2);
+        for (int size = 2; size <= 7; size++) {
+            for (int i = 0; i < 2000; i++) {
+                GameBoard board = randomBoard(size, random);
+                for (Direction direction : Direction.values()) {
+                    GameBoard slid = board.slide(direction);
+                    String message = direction + " on\n" + board;
+                    assertEquals(tileSum(board), tileSum(slid), message);
+                    assertEquals(slid != board, board.canMove(direction), message);
+                    if (slid == board) {
+                        assertSame(board, board.move(direction), message);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void mutableBoardLegalMovesMatchGameBoard() {
+        SplittableRandom random = new SplittableRandom(4);
+        for (int size = 2; size <= 7; size++) {
+            for (int i = 0; i < 2000; i++) {
+                GameBoard board = randomBoard(size, random);
+                MutableBoard mutable = MutableBoard.fromGameBoard(board, 0);
+                assertEquals(board.legalMoves(), mutable.legalMoves(), board.toString());
+                // An empty board has no move but is not lost
+                if (board.getEmptyCount() < size * size) {
+                    assertEquals(board.legalMoves() == 0, mutable.isTerminalState(), board.toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    void blockedRowWithEmptyCellCannotMove() {
+        // 2 4 0 0 cannot move left even though the row has empty cells
+        GameBoard board = BitBoard.toGameBoard(0x0021L, 0);
+        assertFalse(board.canMove(Direction.LEFT));
+        assertEquals(Direction.RIGHT.mask() | Direction.DOWN.mask(), board.legalMoves());
+        assertSame(board, board.slide(Direction.LEFT));
+    }
+
+    @Test
+    void movingTheSameBoardTwiceGivesTheSameSpawn() {
+        SplittableRandom random = new SplittableRandom(3);
+        GameBoard board = GameBoard.createInitialBoard(4, 3L);
+        for (int step = 0; step < 500 && !board.isTerminalState(); step++) {
+            for (Direction direction : Direction.values()) {
+                // A trial move must not change what the real move spawns
+                assertEquals(board.move(direction).toString(), board.move(direction).toString());
+            }
+            board = board.move(Direction.values()[random.nextInt(4)]);
+        }
+    }
+
+    @Test
+    void sameSeedReplaysTheSameGame() {
+        GameBoard first = GameBoard.createInitialBoard(4, 11L);
+        GameBoard second = GameBoard.createInitialBoard(4, 11L);
+        assertEquals(first.toString(), second.toString());
+        for (int step = 0; step < 200; step++) {
+            Direction direction = Direction.values()[step % 4];
+            first = first.move(direction);
+            second = second.move(direction);
+            assertEquals(first.toString(), second.toString());
+            assertEquals(first.getScore(), second.getScore());
+        }
+        assertNotEquals(GameBoard.createInitialBoard(4, 12L).move(Direction.LEFT).toString(),
+                GameBoard.createInitialBoard(4, 11L).move(Direction.LEFT).toString());
+    }
+
+    @Test
+    void spawnsAreUniformOverEmptyCellsWithOneFourInTen() {
+        // The empty board's 16 cells and the two values, over many starting states
+        int[] cellCounts = new int[16];
+        int fours = 0;
+        int trials = 160000;
+        for (int i = 0; i < trials; i++) {
+            GameBoard board = GameBoard.fromValues(4, new int[16], 0, (long) i).addRandomTile();
+            int cell = board.getLastSpawnIndex();
+            cellCounts[cell]++;
+            if (board.getValue(cell / 4, cell % 4) == 4) {
+                fours++;
+            }
+        }
+        for (int count : cellCounts) {
+            assertTrue(Math.abs(count - trials / 16) < 400, "cell count " + count);
+        }
+        assertTrue(Math.abs(fours - trials / 10) < 600, "fours " + fours);
+    }
+}
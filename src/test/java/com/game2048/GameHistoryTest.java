@@ -0,0 +1,84 @@
+package com.game2048;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameHistoryTest {
+    // Random moves, undos and redos checked after every step against a list of every board
+    // since the oldest kept keyframe
+    static void checkAgainstList(int size, long seed, int budgetSegments) {
+        SplittableRandom random = new SplittableRandom(seed);
+        GameBoard initial = GameBoard.createInitialBoard(size, seed);
+        long segmentBytes = new GameHistory(initial, Long.MAX_VALUE).getMemoryUsage();
+        long budget = budgetSegments == 0 ? Long.MAX_VALUE : budgetSegments * segmentBytes;
+        GameHistory history = new GameHistory(initial, budget);
+
+        List<GameBoard> boards = new ArrayList<>();
+        boards.add(initial);
+        int position = 0;
+        int longest = 0;
+        int trims = 0;
+        for (int step = 0; step < 20000; step++) {
+            int operation = random.nextInt(20);
+            String message = "step " + step;
+            if (operation < 12) {
+                GameBoard before = history.current();
+                GameBoard after = history.move(Direction.values()[random.nextInt(4)]);
+                if (after != before) {
+                    boards.subList(position + 1, boards.size()).clear();
+                    boards.add(after);
+                    position++;
+                    // The history drops whole keyframes, oldest first, while over budget
+                    while (segments(boards.size() - 1) * segmentBytes > budget
+                            && position >= GameHistory.KEYFRAME_INTERVAL) {
+                        boards.subList(0, GameHistory.KEYFRAME_INTERVAL).clear();
+                        position -= GameHistory.KEYFRAME_INTERVAL;
+                        trims++;
+                    }
+                    longest = Math.max(longest, boards.size() - 1);
+                }
+            } else if (operation < 17) {
+                assertEquals(position > 0, history.undo(), message);
+                position = Math.max(0, position - 1);
+            } else {
+                assertEquals(position < boards.size() - 1, history.redo(), message);
+                position = Math.min(boards.size() - 1, position + 1);
+            }
+
+            GameBoard expected = boards.get(position);
+            assertEquals(expected.toString(), history.current().toString(), message);
+            assertEquals(expected.getScore(), history.current().getScore(), message);
+            assertEquals(position > 0, history.canUndo(), message);
+            assertEquals(position < boards.size() - 1, history.canRedo(), message);
+            assertEquals(segments(boards.size() - 1) * segmentBytes, history.getMemoryUsage(), message);
+        }
+        // The walk must have crossed keyframes (a one-keyframe budget never holds more), and
+        // with a budget dropped some
+        assertTrue(budgetSegments == 1 || longest > GameHistory.KEYFRAME_INTERVAL);
+        assertEquals(budgetSegments > 0, trims > 0);
+    }
+
+    // Keyframes needed for a number of stored moves
+    static long segments(int moves) {
+        return moves == 0 ? 1 : (moves - 1) / GameHistory.KEYFRAME_INTERVAL + 1;
+    }
+
+    @Test
+    void matchesListWithUnlimitedBudget() {
+        checkAgainstList(4, 1, 0);
+        checkAgainstList(3, 2, 0);
+    }
+
+    @Test
+    void matchesListWithTinyBudget() {
+        checkAgainstList(4, 3, 1);
+        checkAgainstList(4, 4, 3);
+        checkAgainstList(5, 5, 2);
+    }
+}
@@ -0,0 +1,181 @@
+package com.game2048;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameRecordTest {
+    @TempDir
+    Path dir;
+
+    static void assertSameBoard(GameBoard expected, GameBoard actual, String message) {
+        assertEquals(expected.getSize(), actual.getSize(), message);
+        assertEquals(expected.getScore(), actual.getScore(), message);
+        assertEquals(expected.toString(), actual.toString(), message);
+    }
+
+    // Plays random legal moves from a seeded start until the game ends or maxMoves is reached,
+    // recording every position
+    static List<GameBoard> playGame(int size, long seed, int maxMoves, List<Direction> moves) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<GameBoard> positions = new ArrayList<>();
+        GameBoard board = GameBoard.createInitialBoard(size, seed);
+        positions.add(board);
+        while (moves.size() < maxMoves && !board.isTerminalState()) {
+            Direction direction = Direction.values()[random.nextInt(4)];
+            if (board.canMove(direction)) {
+                board = board.move(direction);
+                positions.add(board);
+                moves.add(direction);
+            }
+        }
+        return positions;
+    }
+
+    @Test
+    void replaysEveryRecordedBoard() throws IOException {
+        int[] sizes = {4, 2, 3, 4, 5, 7, 16};
+        int[] maxMoves = {0, 1000, 1000, 10000, 300, 37, 5};
+        List<List<GameBoard>> games = new ArrayList<>();
+        List<List<Direction>> gameMoves = new ArrayList<>();
+        Path path = dir.resolve("games.rec");
+        writeArchive(path, sizes, maxMoves, games, gameMoves);
+
+        try (GameRecordReader reader = new GameRecordReader(path)) {
+            assertEquals(sizes.length, reader.getGameCount());
+            for (int game = 0; game < sizes.length; game++) {
+                List<GameBoard> positions = games.get(game);
+                List<Direction> moves = gameMoves.get(game);
+                assertEquals(moves.size(), reader.getMoveCount(game));
+                assertEquals(sizes[game], reader.getBoardSize(game));
+                assertEquals(100 + game, reader.getSeed(game));
+
+                List<GameBoard> replayed = new ArrayList<>();
+                reader.replayAll(game, replayed::add);
+                assertEquals(positions.size(), replayed.size());
+                for (int i = 0; i < positions.size(); i++) {
+                    assertSameBoard(positions.get(i), replayed.get(i), "game " + game + " move " + i);
+                }
+                for (int i = 0; i < moves.size(); i++) {
+                    assertEquals(moves.get(i), reader.getMove(game, i), "game " + game + " move " + i);
+                }
+                int middle = moves.size() / 2;
+                assertSameBoard(positions.get(middle), reader.replay(game, middle), "game " + game);
+            }
+        }
+    }
+
+    // Writes one seeded random game per size, recording the positions and moves of each
+    static void writeArchive(Path path, int[] sizes, int[] maxMoves, List<List<GameBoard>> games,
+                             List<List<Direction>> gameMoves) throws IOException {
+        try (GameRecordWriter writer = new GameRecordWriter(path)) {
+            for (int game = 0; game < sizes.length; game++) {
+                List<Direction> moves = new ArrayList<>();
+                List<GameBoard> positions = playGame(sizes[game], 100 + game, maxMoves[game], moves);
+                writer.beginGame(positions.get(0), 100 + game);
+                for (int i = 0; i < moves.size(); i++) {
+                    writer.recordMove(moves.get(i), positions.get(i + 1));
+                }
+                writer.endGame();
+                games.add(positions);
+                gameMoves.add(moves);
+            }
+        }
+    }
+
+    @Test
+    void randomAccessAcrossMappedWindows() throws IOException {
+        SplittableRandom random = new SplittableRandom(7);
+        int[] sizes = new int[60];
+        int[] maxMoves = new int[sizes.length];
+        for (int game = 0; game < sizes.length; game++) {
+            sizes[game] = 3 + random.nextInt(4);
+            maxMoves[game] = random.nextInt(400);
+        }
+        List<List<GameBoard>> games = new ArrayList<>();
+        List<List<Direction>> gameMoves = new ArrayList<>();
+        Path path = dir.resolve("windows.rec");
+        writeArchive(path, sizes, maxMoves, games, gameMoves);
+
+        // 1 KB windows: every game fits in one, and the archive needs many of them
+        try (GameRecordReader reader = new GameRecordReader(path, 1024)) {
+            assertTrue(reader.getWindowCount() > 5, "windows: " + reader.getWindowCount());
+            for (int i = 0; i < 500; i++) {
+                int game = random.nextInt(sizes.length);
+                List<GameBoard> positions = games.get(game);
+                List<Direction> moves = gameMoves.get(game);
+                String message = "game " + game;
+                assertEquals(sizes[game], reader.getBoardSize(game), message);
+                assertEquals(100 + game, reader.getSeed(game), message);
+                assertEquals(moves.size(), reader.getMoveCount(game), message);
+                int move = random.nextInt(positions.size());
+                assertSameBoard(positions.get(move), reader.replay(game, move), message + " move " + move);
+                if (!moves.isEmpty()) {
+                    int index = random.nextInt(moves.size());
+                    assertEquals(moves.get(index), reader.getMove(game, index), message + " move " + index);
+                }
+            }
+        }
+        // A game larger than a window cannot be mapped
+        assertThrows(IOException.class, () -> new GameRecordReader(path, 64).close());
+    }
+
+    @Test
+    void rejectsCorruptOrTruncatedTrailer() throws IOException {
+        Path path = dir.resolve("valid.rec");
+        writeArchive(path, new int[] {4, 3, 5}, new int[] {50, 20, 10}, new ArrayList<>(), new ArrayList<>());
+        byte[] valid = Files.readAllBytes(path);
+        int trailer = valid.length - GameRecordWriter.TRAILER_BYTES;
+        long indexOffset = ByteBuffer.wrap(valid).getLong(trailer);
+        try (GameRecordReader reader = new GameRecordReader(path)) {
+            assertEquals(3, reader.getGameCount());
+        }
+
+        List<byte[]> corrupt = new ArrayList<>();
+        // Truncated by one byte, and cut off right before the trailer
+        corrupt.add(Arrays.copyOf(valid, valid.length - 1));
+        corrupt.add(Arrays.copyOf(valid, trailer));
+        // Index offset past the end and into the games
+        corrupt.add(withLong(valid, trailer, valid.length));
+        corrupt.add(withLong(valid, trailer, indexOffset - 1));
+        // Game count one too many, one too few and negative
+        corrupt.add(withInt(valid, trailer + 8, 4));
+        corrupt.add(withInt(valid, trailer + 8, 2));
+        corrupt.add(withInt(valid, trailer + 8, -1));
+        // Games out of order in the index, and a first game that skips the file header
+        corrupt.add(withLong(valid, (int) indexOffset + GameRecordWriter.INDEX_ENTRY_BYTES,
+                indexOffset - 1));
+        corrupt.add(withLong(valid, (int) indexOffset, GameRecordWriter.FILE_MAGIC.length + 1));
+        // Not a record file
+        corrupt.add(withLong(valid, 0, 0));
+        for (int i = 0; i < corrupt.size(); i++) {
+            Path bad = dir.resolve("corrupt" + i + ".rec");
+            Files.write(bad, corrupt.get(i));
+            assertThrows(IOException.class, () -> new GameRecordReader(bad).close(), "case " + i);
+        }
+    }
+
+    static byte[] withLong(byte[] bytes, int offset, long value) {
+        byte[] copy = bytes.clone();
+        ByteBuffer.wrap(copy).putLong(offset, value);
+        return copy;
+    }
+
+    static byte[] withInt(byte[] bytes, int offset, int value) {
+        byte[] copy = bytes.clone();
+        ByteBuffer.wrap(copy).putInt(offset, value);
+        return copy;
+    }
+}
@@ -0,0 +1,71 @@
+package com.game2048;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameServerTest {
+    private static final String IDLE_CONNECTIONS = "sun.net.httpserver.maxIdleConnections";
+
+    private String idleConnectionsBefore;
+    private GameServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        idleConnectionsBefore = System.getProperty(IDLE_CONNECTIONS);
+        server = new GameServer(new InetSocketAddress("127.0.0.1", 0), 8, 4096);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    HttpResponse<String> send(String method, String path) throws IOException, InterruptedException {
+        URI uri = URI.create("http://127.0.0.1:" + server.getPort() + path);
+        HttpRequest request = HttpRequest.newBuilder(uri).method(method, HttpRequest.BodyPublishers.noBody()).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void playsAGame() throws IOException, InterruptedException {
+        HttpResponse<String> created = send("POST", "/games?size=4&seed=1");
+        assertEquals(201, created.statusCode());
+        assertTrue(created.body().startsWith("id 1\n"), created.body());
+        assertEquals(200, send("GET", "/games/1").statusCode());
+        assertEquals(1, server.getSessionCount());
+        assertEquals(200, send("DELETE", "/games/1").statusCode());
+        assertEquals(404, send("GET", "/games/1").statusCode());
+    }
+
+    @Test
+    void unknownPathsAndIdsAreNotFound() throws IOException, InterruptedException {
+        // Paths that only start with the prefix must not create games
+        assertEquals(404, send("POST", "/gamesfoo").statusCode());
+        assertEquals(404, send("POST", "/games.txt?size=4").statusCode());
+        assertEquals(0, server.getSessionCount());
+        assertEquals(404, send("GET", "/games/abc").statusCode());
+        assertEquals(404, send("POST", "/games/1x/move?dir=left").statusCode());
+        assertEquals(404, send("GET", "/games/99").statusCode());
+        // Bad parameters on a real path are still bad requests
+        assertEquals(400, send("POST", "/games?size=x").statusCode());
+    }
+
+    @Test
+    void constructorLeavesSystemPropertiesAlone() {
+        assertEquals(idleConnectionsBefore, System.getProperty(IDLE_CONNECTIONS));
+    }
+}
@@ -0,0 +1,54 @@
+package com.game2048;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelExpectimaxSolverTest {
+    // Small table so the tests do not allocate the 64 MB default
+    static final int TABLE_BITS = 16;
+
+    static ParallelExpectimaxSolver solver(int depth, Duration budget, BoardEvaluator evaluator) {
+        return new ParallelExpectimaxSolver(depth, budget, 2, evaluator, TABLE_BITS);
+    }
+
+    @Test
+    void agreesWithSequentialSolverAtFixedDepth() {
+        for (long seed = 1; seed <= 20; seed++) {
+            long board = ExpectimaxSolverTest.midGameBoard(seed);
+            try (ParallelExpectimaxSolver parallel = solver(3, Duration.ZERO, WeightedEvaluator.defaults())) {
+                assertEquals(ExpectimaxSolver.withDepth(3).bestMove(board), parallel.bestMove(board),
+                        BitBoard.toString(board));
+            }
+        }
+    }
+
+    @Test
+    void terminalBoardHasNoMove() {
+        long board = ExpectimaxSolverTest.TERMINAL_BOARD;
+        try (ParallelExpectimaxSolver parallel = solver(3, Duration.ZERO, WeightedEvaluator.defaults())) {
+            assertNull(parallel.bestMove(board));
+            assertEquals(Optional.empty(), parallel.chooseMove(BitBoard.toGameBoard(board, 0)));
+        }
+    }
+
+    @Test
+    void stopsAtTheTimeBudget() {
+        // A 2 us evaluator makes depth 8 take far longer than the 100 ms budget
+        BoardEvaluator evaluator = ExpectimaxSolverTest.slowed(WeightedEvaluator.defaults(), 2000);
+        long board = ExpectimaxSolverTest.midGameBoard(3);
+        try (ParallelExpectimaxSolver parallel = solver(8, Duration.ofMillis(100), evaluator)) {
+            long start = System.nanoTime();
+            Direction move = parallel.bestMove(board);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            assertNotNull(move);
+            assertTrue(elapsedMillis < 1000, "took " + elapsedMillis + " ms");
+        }
+    }
+}
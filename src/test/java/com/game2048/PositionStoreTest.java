@@ -0,0 +1,129 @@
+package com.game2048;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PositionStoreTest {
+    @TempDir
+    Path dir;
+
+    // Inserts random boards, keeping the expected value of each position by canonical form
+    static Map<String, Long> fill(PositionStore store, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Map<String, Long> expected = new HashMap<>();
+        while (expected.size() < count) {
+            GameBoard board = GameBoardTest.randomBoard(store.getBoardSize(), random);
+            long value = random.nextLong();
+            boolean fresh = expected.put(board.canonical().toString(), value) == null;
+            assertEquals(fresh, store.insert(board, value), board.toString());
+        }
+        return expected;
+    }
+
+    static void assertContents(PositionStore store, Map<String, Long> expected) {
+        assertEquals(expected.size(), store.size());
+        Map<String, Long> visited = new HashMap<>();
+        store.forEach((board, value) -> {
+            // Visited boards come back in canonical form
+            assertEquals(board.canonical().toString(), board.toString());
+            assertEquals(OptionalLong.of(value), store.lookup(board));
+            visited.put(board.toString(), value);
+        });
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void insertsAndLooksUp() {
+        PositionStore store = PositionStore.allocate(4, 1000);
+        Map<String, Long> expected = fill(store, 500, 1);
+        assertContents(store, expected);
+
+        SplittableRandom random = new SplittableRandom(2);
+        for (int i = 0; i < 200; i++) {
+            GameBoard board = GameBoardTest.randomBoard(4, random);
+            Long value = expected.get(board.canonical().toString());
+            assertEquals(value == null ? OptionalLong.empty() : OptionalLong.of(value), store.lookup(board));
+            assertEquals(value != null, store.contains(board));
+        }
+
+        // Inserting a stored position (the first one fill drew) again replaces its value
+        GameBoard board = GameBoardTest.randomBoard(4, new SplittableRandom(1));
+        assertFalse(store.insert(board, 8));
+        assertEquals(OptionalLong.of(8), store.lookup(board));
+        assertEquals(expected.size(), store.size());
+        assertThrows(IllegalArgumentException.class, () -> store.lookup(GameBoardTest.randomBoard(5, random)));
+    }
+
+    @Test
+    void symmetricVariantsShareOneRecord() {
+        SplittableRandom random = new SplittableRandom(3);
+        for (int size = 2; size <= 6; size++) {
+            PositionStore store = PositionStore.allocate(size, 100);
+            int[] values = new int[size * size];
+            int[] variant = new int[size * size];
+            for (int i = 0; i < 20; i++) {
+                GameBoard board = GameBoardTest.randomBoard(size, random);
+                long value = random.nextLong();
+                store.insert(board, value);
+                board.copyValues(values);
+                for (int symmetry = 0; symmetry < BoardSymmetry.COUNT; symmetry++) {
+                    BoardSymmetry.apply(values, size, symmetry, variant);
+                    GameBoard symmetric = GameBoard.fromValues(size, variant, 0);
+                    String message = "symmetry " + symmetry + " of\n" + board;
+                    assertEquals(OptionalLong.of(value), store.lookup(symmetric), message);
+                    assertFalse(store.insert(symmetric, value), message);
+                }
+            }
+        }
+    }
+
+    @Test
+    void fullStoreThrows() {
+        PositionStore store = PositionStore.allocate(4, 10);
+        long capacity = store.getCapacity();
+        assertTrue(capacity >= 10);
+        Map<String, Long> expected = fill(store, (int) capacity, 4);
+        SplittableRandom random = new SplittableRandom(5);
+        GameBoard extra;
+        do {
+            extra = GameBoardTest.randomBoard(4, random);
+        } while (expected.containsKey(extra.canonical().toString()));
+        GameBoard board = extra;
+        assertThrows(IllegalStateException.class, () -> store.insert(board, 0));
+        assertContents(store, expected);
+    }
+
+    @Test
+    void reopensWithCountAndValues() throws IOException {
+        Path path = dir.resolve("positions.bin");
+        Map<String, Long> expected;
+        try (PositionStore store = PositionStore.create(path, 5, 3000)) {
+            expected = fill(store, 2000, 6);
+        }
+        try (PositionStore store = PositionStore.open(path)) {
+            assertEquals(5, store.getBoardSize());
+            assertContents(store, expected);
+            // Positions added after reopening persist as well
+            GameBoard board = GameBoardTest.randomBoard(5, new SplittableRandom(7));
+            if (store.insert(board, 42)) {
+                expected.put(board.canonical().toString(), 42L);
+            }
+        }
+        try (PositionStore store = PositionStore.open(path)) {
+            assertContents(store, expected);
+        }
+        assertThrows(IOException.class, () -> PositionStore.open(dir.resolve("missing.bin")));
+    }
+}
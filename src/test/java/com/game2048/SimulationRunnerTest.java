@@ -0,0 +1,29 @@
+package com.game2048;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SimulationRunnerTest {
+    @Test
+    void nearestRankPicksTheSmallestValueCoveringThePercentile() {
+        // Ten sorted values: the 50th percentile is the 5th, the 90th the 9th, anything above 90 the 10th
+        assertEquals(0, SimulationRunner.nearestRank(0, 10));
+        assertEquals(0, SimulationRunner.nearestRank(10, 10));
+        assertEquals(1, SimulationRunner.nearestRank(10.5, 10));
+        assertEquals(4, SimulationRunner.nearestRank(50, 10));
+        assertEquals(8, SimulationRunner.nearestRank(90, 10));
+        assertEquals(9, SimulationRunner.nearestRank(90.1, 10));
+        assertEquals(9, SimulationRunner.nearestRank(100, 10));
+        assertEquals(0, SimulationRunner.nearestRank(50, 1));
+    }
+
+    @Test
+    void nearestRankRejectsBadArguments() {
+        assertThrows(IllegalArgumentException.class, () -> SimulationRunner.nearestRank(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> SimulationRunner.nearestRank(100.5, 10));
+        assertThrows(IllegalArgumentException.class, () -> SimulationRunner.nearestRank(Double.NaN, 10));
+        assertThrows(IllegalArgumentException.class, () -> SimulationRunner.nearestRank(50, 0));
+    }
+}
@@ -0,0 +1,96 @@
+package com.game2048;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TablebaseTest {
+    @TempDir
+    Path dir;
+
+    static GameBoard unpack(long board, int size) {
+        int[] values = new int[size * size];
+        for (int cell = 0; cell < values.length; cell++) {
+            int exponent = (int) (board >>> (4 * cell)) & 0xF;
+            values[cell] = exponent == 0 ? 0 : 1 << exponent;
+        }
+        return GameBoard.fromValues(size, values, 0);
+    }
+
+    static TablebaseGenerator generate(int target, int threads) throws InterruptedException {
+        TablebaseGenerator generator = new TablebaseGenerator(2, target, threads);
+        generator.generate();
+        return generator;
+    }
+
+    // Every stored position, in each of its 8 orientations, reads back with the generator's value
+    // and a move that leads to the same position as the generator's move
+    static void checkTable(TablebaseGenerator generator, Path path, int target) throws IOException {
+        SmallBoard boards = SmallBoard.of(2);
+        generator.write(path);
+        try (Tablebase tablebase = Tablebase.open(path)) {
+            assertEquals(2, tablebase.getBoardSize());
+            assertEquals(target, tablebase.getTargetTile());
+            assertEquals(generator.getPositionCount(), tablebase.getPositionCount());
+            for (int layer = 0; layer < generator.getLayerCount(); layer++) {
+                long[] positions = generator.getLayer(layer);
+                for (int i = 0; i < positions.length; i++) {
+                    long key = positions[i];
+                    int move = generator.getMove(layer, i);
+                    for (int symmetry = 0; symmetry < SmallBoard.SYMMETRIES; symmetry++) {
+                        long packed = boards.transform(key, symmetry);
+                        GameBoard board = unpack(packed, 2);
+                        String message = "symmetry " + symmetry + " of\n" + unpack(key, 2);
+                        assertEquals(generator.getValue(layer, i), tablebase.value(board).getAsDouble(), message);
+                        Optional<Direction> best = tablebase.bestMove(board);
+                        assertEquals(move >= 0, best.isPresent(), message);
+                        if (best.isPresent()) {
+                            long moved = boards.slide(packed, best.get().ordinal());
+                            assertNotEquals(packed, moved, message);
+                            assertEquals(boards.canonical(boards.slide(key, move)), boards.canonical(moved), message);
+                        }
+                    }
+                }
+            }
+            // A position that cannot occur: no tiles at all
+            assertFalse(tablebase.value(unpack(0, 2)).isPresent());
+        }
+    }
+
+    @Test
+    void scoreTableReadsBackForEverySymmetry() throws Exception {
+        TablebaseGenerator generator = generate(0, 1);
+        assertEquals(110, generator.getPositionCount());
+        checkTable(generator, dir.resolve("score.tb"), 0);
+    }
+
+    @Test
+    void targetTableReadsBackForEverySymmetry() throws Exception {
+        TablebaseGenerator generator = generate(32, 1);
+        double chance = generator.getStartValue();
+        assertTrue(chance > 0 && chance < 1);
+        checkTable(generator, dir.resolve("target.tb"), 32);
+    }
+
+    @Test
+    void startValueAndFileAreStable() throws Exception {
+        TablebaseGenerator single = generate(0, 1);
+        TablebaseGenerator parallel = generate(0, 4);
+        assertEquals(66.96, single.getStartValue(), 0.005);
+        assertEquals(single.getStartValue(), parallel.getStartValue());
+        assertEquals(single.getStartValue(), generate(0, 1).getStartValue());
+        single.write(dir.resolve("single.tb"));
+        parallel.write(dir.resolve("parallel.tb"));
+        assertArrayEquals(Files.readAllBytes(dir.resolve("single.tb")), Files.readAllBytes(dir.resolve("parallel.tb")));
+    }
+}